@@ -0,0 +1,68 @@
+package com.example.trivia.benchmarks;
+
+import com.example.trivia.controller.AnswerSubmission;
+import com.example.trivia.controller.GameController;
+import com.example.trivia.model.Player;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameController.submitAnswer con muchos jugadores respondiendo a la vez,
+ * como ocurre justo después del inicio de cada ronda.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(8)
+public class AnswerSubmissionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        @Param({"200"})
+        public int players;
+
+        @Param({"5"})
+        public int questionsPerRound;
+
+        BenchmarkEnvironment env;
+        GameController gameController;
+        GameFixture fixture;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            env = BenchmarkEnvironment.start();
+            gameController = env.bean(GameController.class);
+            fixture = GameFixture.create(env, players, questionsPerRound);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            env.close();
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<Void> submitAnswer(Shared shared) {
+        GameFixture fixture = shared.fixture;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int playerIndex = random.nextInt(fixture.players.size());
+        Player player = fixture.players.get(playerIndex);
+        MockHttpServletRequest request = fixture.requests.get(playerIndex);
+        String questionId = fixture.questionIds.get(random.nextInt(fixture.questionIds.size()));
+
+        return shared.gameController.submitAnswer(
+                fixture.game.gameId().toString(),
+                fixture.firstRound.roundId().toString(),
+                questionId,
+                player.playerId().toString(),
+                new AnswerSubmission("Pulp Fiction"),
+                request);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.trivia.benchmarks;
+
+import com.example.trivia.TriviaApplication;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PostgreSQL embebido + contexto de Spring compartidos por todos los benchmarks.
+ * Los controllers se invocan directamente (sin Tomcat) para medir solo la lógica
+ * de la aplicación y los accesos a base de datos.
+ */
+public final class BenchmarkEnvironment implements AutoCloseable {
+    private final EmbeddedPostgres postgres;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkEnvironment(EmbeddedPostgres postgres, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.context = context;
+    }
+
+    public static BenchmarkEnvironment start() throws IOException, SQLException {
+        return start(new String[0]);
+    }
+
+    /** @param properties propiedades extra de la aplicación, {@code clave=valor} */
+    public static BenchmarkEnvironment start(String... properties) throws IOException, SQLException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.start();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute(readSchema());
+        }
+
+        // Como argumentos y no con properties(): esas son valores por defecto y
+        // application.properties (spring.datasource.url=...db...) las taparía
+        List<String> args = new ArrayList<>(List.of(
+                "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "spring.datasource.username=postgres",
+                "spring.datasource.password=postgres",
+                "spring.docker.compose.enabled=false",
+                "logging.level.root=WARN",
+                "logging.level.org.springframework.jdbc=WARN",
+                "logging.level.org.springframework.transaction=WARN",
+                "logging.level.com.example.trivia=WARN"));
+        args.addAll(List.of(properties));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TriviaApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.stream().map(arg -> "--" + arg).toArray(String[]::new));
+        return new BenchmarkEnvironment(postgres, context);
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /** Conexión directa (fuera del pool de Spring) para los benchmarks de DAO. */
+    public Connection openConnection() throws SQLException {
+        return postgres.getPostgresDatabase().getConnection();
+    }
+
+    private static String readSchema() throws IOException {
+        try (InputStream in = BenchmarkEnvironment.class.getResourceAsStream("/schema.sql")) {
+            if (in == null) {
+                throw new IOException("schema.sql not found on the benchmark classpath");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        postgres.close();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.trivia.benchmarks;
+
+import com.example.trivia.dao.QuestionDAO;
+import com.example.trivia.dao.ResponseDAO;
+import com.example.trivia.model.Question;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminos JDBC sin repositorios de Spring Data: ResponseDAO.insert y
+ * QuestionDAO.insert/getById. Los DAO son beans compartidos por todos los hilos
+ * de JMH y toman una conexión del pool en cada llamada.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(8)
+public class DaoBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        BenchmarkEnvironment env;
+        GameFixture fixture;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            env = BenchmarkEnvironment.start();
+            fixture = GameFixture.create(env, 200, 5);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            env.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Daos {
+        ResponseDAO responseDAO;
+        QuestionDAO questionDAO;
+        UUID roundId;
+
+        @Setup(Level.Trial)
+        public void setUp(Shared shared) {
+            responseDAO = shared.env.bean(ResponseDAO.class);
+            questionDAO = shared.env.bean(QuestionDAO.class);
+            roundId = shared.fixture.firstRound.roundId();
+        }
+    }
+
+    @Benchmark
+    public UUID responseInsert(Shared shared, Daos daos) throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        GameFixture fixture = shared.fixture;
+        UUID questionId = UUID.fromString(fixture.questionIds.get(random.nextInt(fixture.questionIds.size())));
+        UUID playerId = fixture.players.get(random.nextInt(fixture.players.size())).playerId();
+        return daos.responseDAO.insert(questionId, playerId,
+                new Timestamp(System.currentTimeMillis()), "Pulp Fiction", null, Boolean.TRUE);
+    }
+
+    @Benchmark
+    public UUID questionInsert(Daos daos) throws SQLException {
+        return daos.questionDAO.insert(daos.roundId, "short_answer", "Benchmark question", null);
+    }
+
+    @Benchmark
+    public Question questionGetById(Shared shared, Daos daos) throws SQLException {
+        GameFixture fixture = shared.fixture;
+        String questionId = fixture.questionIds.get(ThreadLocalRandom.current().nextInt(fixture.questionIds.size()));
+        return daos.questionDAO.getById(UUID.fromString(questionId));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.trivia.benchmarks;
+
+import com.example.trivia.auth.PlayerAuthenticator;
+import com.example.trivia.controller.GameController;
+import com.example.trivia.controller.NewGame;
+import com.example.trivia.controller.RoomController;
+import com.example.trivia.model.Game;
+import com.example.trivia.model.Player;
+import com.example.trivia.model.Question;
+import com.example.trivia.model.Room;
+import com.example.trivia.model.Round;
+import com.example.trivia.model.Settings;
+import com.example.trivia.repository.QuestionRepository;
+import com.example.trivia.repository.RoundRepository;
+import com.example.trivia.repository.SettingsRepository;
+import com.example.trivia.selection.QuestionSelectionEngine;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sala con un host, N jugadores y una partida en curso, creada a través de los
+ * mismos controllers que usa la API. Cada jugador tiene su petición con el token
+ * firmado que devuelve joinRoom. Las rondas duran una hora para que la
+ * primera siga abierta durante toda la medición.
+ */
+public final class GameFixture {
+    public final Room room;
+    public final Game game;
+    public final Round firstRound;
+    public final List<String> questionIds = new ArrayList<>();
+    public final List<Player> players = new ArrayList<>();
+    public final List<MockHttpServletRequest> requests = new ArrayList<>();
+
+    private GameFixture(Room room, Game game, Round firstRound) {
+        this.room = room;
+        this.game = game;
+        this.firstRound = firstRound;
+    }
+
+    public static GameFixture create(BenchmarkEnvironment env, int players, int questionsPerRound)
+            throws SQLException {
+        RoomController roomController = env.bean(RoomController.class);
+        GameController gameController = env.bean(GameController.class);
+
+        Room room = roomController.createRoom().getBody();
+        String roomId = room.roomId().toString();
+
+        MockHttpServletRequest hostRequest = new MockHttpServletRequest();
+        Player host = join(roomController, roomId, "host", hostRequest);
+
+        Settings current = env.bean(SettingsRepository.class).findById(room.settingsId()).get();
+        Settings settings = new Settings(current.settingsId(), current.rounds(), 3600, questionsPerRound,
+                current.difficulty(), current.maxPlayersPerTeam(), current.version());
+        roomController.updateSettings(roomId, settings, hostRequest);
+
+        seedQuestionBank(env, settings.rounds() * questionsPerRound);
+        env.bean(QuestionSelectionEngine.class).reload(); // El índice se cargó al arrancar, con el banco vacío
+        Game game = gameController.createGame(new NewGame(roomId), hostRequest).getBody();
+        Round firstRound = env.bean(RoundRepository.class).findByGameId(game.gameId()).stream()
+                .filter(round -> round.number() == 1)
+                .findFirst()
+                .orElseThrow();
+
+        GameFixture fixture = new GameFixture(room, game, firstRound);
+        fixture.players.add(host);
+        fixture.requests.add(hostRequest);
+        for (int i = 1; i < players; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            fixture.players.add(join(roomController, roomId, "player" + i, request));
+            fixture.requests.add(request);
+        }
+
+        for (Question question : env.bean(QuestionRepository.class).findByRoundId(firstRound.roundId())) {
+            fixture.questionIds.add(question.questionId().toString());
+        }
+        return fixture;
+    }
+
+    /** Une al jugador y deja su token en la cabecera Authorization de la petición. */
+    private static Player join(RoomController roomController, String roomId, String username,
+            MockHttpServletRequest request) {
+        ResponseEntity<Player> response = roomController.joinRoom(roomId, Map.of("username", username), request);
+        request.addHeader("Authorization", "Bearer " + response.getHeaders().getFirst(PlayerAuthenticator.TOKEN_HEADER));
+        return response.getBody();
+    }
+
+    /** createGame copia las preguntas del banco: hace falta al menos una partida completa. */
+    private static void seedQuestionBank(BenchmarkEnvironment env, int questions) throws SQLException {
+        String sql = """
+            INSERT INTO question_bank (type, difficulty, text, correct_answers)
+            SELECT 'short_answer', 'easy', 'Benchmark question ' || i, ARRAY['Pulp Fiction']
+            FROM generate_series(1, ?) AS i
+            """;
+        try (Connection connection = env.openConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, questions);
+            stmt.executeUpdate();
+        }
+    }
+}
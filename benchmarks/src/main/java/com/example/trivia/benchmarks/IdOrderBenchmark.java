@@ -0,0 +1,116 @@
+package com.example.trivia.benchmarks;
+
+import com.example.trivia.dao.ResponseDAO;
+import com.example.trivia.ids.IdGenerator;
+import com.example.trivia.model.Player;
+import com.example.trivia.model.Response;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de insertar en {@code responses} con ids aleatorios (v4) frente a
+ * ordenados por tiempo (v7), con la tabla ya grande: lotes de
+ * AnswerIngestionService sobre {@code initialRows} respuestas previas.
+ *
+ * Al terminar cada trial imprime el tamaño de la tabla y de su clave primaria
+ * (sumando todas las particiones), bytes de índice por fila y los bloques del
+ * índice leídos fuera de shared_buffers: con v4 cada lote toca páginas del
+ * índice al azar y las divide a medias, con v7 solo la última.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(4)
+public class IdOrderBenchmark {
+    private static final int BATCH_SIZE = 500;
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        @Param({"4", "7"})
+        public int idVersion;
+
+        @Param({"1000000"})
+        public int initialRows;
+
+        BenchmarkEnvironment env;
+        GameFixture fixture;
+        ResponseDAO responseDAO;
+        IdGenerator ids;
+        List<UUID> questionIds;
+        List<UUID> playerIds;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            env = BenchmarkEnvironment.start("trivia.ids.version=" + idVersion);
+            fixture = GameFixture.create(env, 50, 5);
+            responseDAO = env.bean(ResponseDAO.class);
+            ids = env.bean(IdGenerator.class);
+            questionIds = fixture.questionIds.stream().map(UUID::fromString).toList();
+            playerIds = fixture.players.stream().map(Player::playerId).toList();
+
+            for (int rows = 0; rows < initialRows; rows += 10_000) {
+                responseDAO.insertBatch(responses(Math.min(10_000, initialRows - rows)));
+            }
+            try (Connection connection = env.openConnection();
+                 Statement stmt = connection.createStatement()) {
+                stmt.execute("VACUUM ANALYZE responses");
+                stmt.execute("SELECT pg_stat_reset()");
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            try (Connection connection = env.openConnection();
+                 Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("""
+                     SELECT (SELECT count(*) FROM responses) AS row_count,
+                            (SELECT sum(pg_relation_size(relid)) FROM pg_partition_tree('responses')) AS table_bytes,
+                            sum(pg_relation_size(s.indexrelid)) AS pkey_bytes,
+                            sum(s.idx_blks_read) AS idx_blks_read, sum(s.idx_blks_hit) AS idx_blks_hit
+                     FROM pg_statio_user_indexes s
+                     WHERE s.indexrelid IN (SELECT relid FROM pg_partition_tree('responses_pkey'))
+                     """)) {
+                rs.next();
+                long rowCount = rs.getLong("row_count");
+                long pkeyBytes = rs.getLong("pkey_bytes");
+                System.out.printf("%nUUIDv%d: %d rows, table %d MiB, responses_pkey %d MiB (%.1f bytes/row),"
+                                + " pkey blocks read %d / hit %d%n",
+                        idVersion, rowCount, rs.getLong("table_bytes") >> 20, pkeyBytes >> 20,
+                        (double) pkeyBytes / rowCount, rs.getLong("idx_blks_read"), rs.getLong("idx_blks_hit"));
+            }
+            env.close();
+        }
+
+        List<Response> responses(int count) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            List<Response> responses = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                responses.add(new Response(ids.next(),
+                        questionIds.get(random.nextInt(questionIds.size())),
+                        playerIds.get(random.nextInt(playerIds.size())),
+                        now, "Pulp Fiction", null, Boolean.TRUE));
+            }
+            return responses;
+        }
+    }
+
+    /** Un lote como los que escribe AnswerIngestionService. */
+    @Benchmark
+    public int[] insertBatch(Shared shared) throws SQLException {
+        return shared.responseDAO.insertBatch(shared.responses(BATCH_SIZE));
+    }
+}
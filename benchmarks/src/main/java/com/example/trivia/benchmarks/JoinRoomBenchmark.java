@@ -0,0 +1,55 @@
+package com.example.trivia.benchmarks;
+
+import com.example.trivia.controller.RoomController;
+import com.example.trivia.model.Player;
+import com.example.trivia.model.Room;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RoomController.joinRoom. Cada iteración usa una sala nueva para que el
+ * tamaño de la sala (y la consulta del host) no crezca sin límite.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(8)
+public class JoinRoomBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        BenchmarkEnvironment env;
+        RoomController roomController;
+        volatile String roomId;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            env = BenchmarkEnvironment.start();
+            roomController = env.bean(RoomController.class);
+        }
+
+        @Setup(Level.Iteration)
+        public void newRoom() {
+            Room room = roomController.createRoom().getBody();
+            roomId = room.roomId().toString();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            env.close();
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<Player> joinRoom(Shared shared) {
+        return shared.roomController.joinRoom(shared.roomId,
+                Map.of("username", "player"), new MockHttpServletRequest());
+    }
+}
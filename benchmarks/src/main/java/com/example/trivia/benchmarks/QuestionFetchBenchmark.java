@@ -0,0 +1,53 @@
+package com.example.trivia.benchmarks;
+
+import com.example.trivia.controller.GameController;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/** GameController.getRoundQuestions: todos los jugadores piden las preguntas al empezar la ronda. */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(8)
+public class QuestionFetchBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        @Param({"5"})
+        public int questionsPerRound;
+
+        @Param({"application/json", "application/cbor"})
+        public String accept;
+
+        BenchmarkEnvironment env;
+        GameController gameController;
+        GameFixture fixture;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            env = BenchmarkEnvironment.start();
+            gameController = env.bean(GameController.class);
+            fixture = GameFixture.create(env, 1, questionsPerRound);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            env.close();
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> getRoundQuestions(Shared shared) {
+        return shared.gameController.getRoundQuestions(
+                shared.fixture.game.gameId().toString(),
+                shared.fixture.firstRound.roundId().toString(),
+                null,
+                shared.accept,
+                null);
+    }
+}
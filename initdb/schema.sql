@@ -1,9 +1,29 @@
 -- 1. UUID extension
 CREATE EXTENSION IF NOT EXISTS "pgcrypto";
 
--- 2. Ajustes de la partida
+-- 1.1. UUIDv7 (RFC 9562) para las claves generadas por la base de datos: los 48
+--      primeros bits son milisegundos Unix, así que las filas nuevas caen en la
+--      última página del índice de la clave primaria y no en una al azar.
+--      Parte de un v4 aleatorio: se pone el timestamp delante y la versión a 7
+--      (bits 52 y 53). La aplicación genera los suyos con UuidV7Generator
+CREATE OR REPLACE FUNCTION uuid_generate_v7()
+RETURNS uuid AS $$
+  SELECT encode(
+    set_bit(
+      set_bit(
+        overlay(uuid_send(gen_random_uuid())
+                PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                FROM 1 FOR 6),
+        52, 1),
+      53, 1),
+    'hex')::uuid;
+$$ LANGUAGE sql VOLATILE;
+
+-- 2. Ajustes de la partida. Cada fila es una versión inmutable: cambiar los ajustes
+--    inserta una fila nueva (version + 1) y apunta la sala a ella
 CREATE TABLE settings (
-  settings_id         UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+  settings_id         UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
+  version              INTEGER NOT NULL DEFAULT 1,
   rounds               INTEGER NOT NULL CHECK (rounds > 0),
   time_per_round       INTEGER NOT NULL CHECK (time_per_round > 0),
   questions_per_round  INTEGER NOT NULL CHECK (questions_per_round > 0),
@@ -13,7 +33,7 @@ CREATE TABLE settings (
 
 -- 3. Salas / rooms
 CREATE TABLE rooms (
-  room_id     UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+  room_id     UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
   slug        TEXT UNIQUE NOT NULL,
   created_at  TIMESTAMPTZ NOT NULL DEFAULT now(),
   settings_id UUID NOT NULL REFERENCES settings(settings_id) ON DELETE CASCADE
@@ -21,14 +41,14 @@ CREATE TABLE rooms (
 
 -- 4. Equipos / teams
 CREATE TABLE teams (
-  team_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+  team_id UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
   room_id UUID NOT NULL REFERENCES rooms(room_id) ON DELETE CASCADE,
   name    TEXT NOT NULL
 );
 
 -- 5. Jugadores / players
 CREATE TABLE players (
-  player_id  UUID    PRIMARY KEY DEFAULT gen_random_uuid(),
+  player_id  UUID    PRIMARY KEY DEFAULT uuid_generate_v7(),
   room_id    UUID    NOT NULL REFERENCES rooms(room_id)    ON DELETE CASCADE,
   username   TEXT    NOT NULL,
   is_host    BOOLEAN NOT NULL DEFAULT FALSE,
@@ -37,15 +57,17 @@ CREATE TABLE players (
 
 -- 6. Partidas / games
 CREATE TABLE games (
-  game_id    UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+  game_id    UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
   room_id    UUID NOT NULL REFERENCES rooms(room_id)        ON DELETE CASCADE,
   started_at TIMESTAMPTZ NOT NULL DEFAULT now(),
-  ended_at   TIMESTAMPTZ NULL
+  ended_at   TIMESTAMPTZ NULL,
+  -- Versión de los ajustes con la que se creó la partida
+  settings_id UUID NULL REFERENCES settings(settings_id)
 );
 
 -- 7. Rondas / rounds
 CREATE TABLE rounds (
-  round_id   UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+  round_id   UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
   game_id    UUID NOT NULL REFERENCES games(game_id)        ON DELETE CASCADE,
   number     INTEGER NOT NULL,
   started_at TIMESTAMPTZ NOT NULL DEFAULT now(),
@@ -53,40 +75,88 @@ CREATE TABLE rounds (
   CONSTRAINT unique_round_number UNIQUE (game_id, number)
 );
 
+-- 7.1. Banco de preguntas (las preguntas de cada ronda se copian de aquí al crear la partida)
+CREATE TABLE question_bank (
+  bank_question_id UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
+  external_id      TEXT   UNIQUE NULL,  -- id en el fichero de importación
+  type             TEXT   NOT NULL CHECK (type IN ('multiple_choice','short_answer','buzzer')),
+  difficulty       TEXT   NOT NULL CHECK (difficulty IN ('easy','medium','hard')),
+  text             TEXT   NOT NULL,
+  media_url        TEXT   NULL,
+  correct_answers  TEXT[] NOT NULL DEFAULT '{}'
+);
+
+-- 7.2. Opciones de las preguntas del banco
+CREATE TABLE question_bank_options (
+  bank_option_id   UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
+  bank_question_id UUID NOT NULL REFERENCES question_bank(bank_question_id) ON DELETE CASCADE,
+  text             TEXT NOT NULL,
+  is_correct       BOOLEAN NOT NULL DEFAULT FALSE
+);
+
 -- 8. Preguntas / questions
 CREATE TABLE questions (
-  question_id  UUID PRIMARY KEY DEFAULT gen_random_uuid(),
-  round_id     UUID NOT NULL REFERENCES rounds(round_id)    ON DELETE CASCADE,
-  type         TEXT NOT NULL CHECK (type IN ('multiple_choice','short_answer','buzzer')),
-  text         TEXT NOT NULL,
-  media_url    TEXT NULL
+  question_id      UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
+  round_id         UUID NOT NULL REFERENCES rounds(round_id)    ON DELETE CASCADE,
+  type             TEXT NOT NULL CHECK (type IN ('multiple_choice','short_answer','buzzer')),
+  text             TEXT NOT NULL,
+  media_url        TEXT NULL,
+  correct_answers  TEXT[] NULL,
+  bank_question_id UUID NULL REFERENCES question_bank(bank_question_id) ON DELETE SET NULL
 );
 
 -- 9. Opciones de elección múltiple
 CREATE TABLE question_options (
-  option_id   UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+  option_id   UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
   question_id UUID NOT NULL REFERENCES questions(question_id) ON DELETE CASCADE,
   text        TEXT NOT NULL,
   is_correct  BOOLEAN NOT NULL DEFAULT FALSE
 );
 
 -- 10. Respuestas / responses
+--     Particionada por día de submitted_at: PartitionManager crea las
+--     particiones de los próximos días y desengancha y borra las que superan
+--     la retención. La partición DEFAULT solo recoge lo que llegue sin partición
+--     (debería quedar vacía: PartitionManager mueve esas filas a la partición de
+--     su día en cuanto la crea). La clave primaria debe incluir la de partición
 CREATE TABLE responses (
-  response_id  UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+  response_id  UUID NOT NULL DEFAULT uuid_generate_v7(),
   question_id  UUID NOT NULL REFERENCES questions(question_id)      ON DELETE CASCADE,
   player_id    UUID NOT NULL REFERENCES players(player_id)          ON DELETE CASCADE,
   submitted_at TIMESTAMPTZ NOT NULL DEFAULT now(),
   text_reply   TEXT NULL,
   option_id    UUID NULL REFERENCES question_options(option_id)     ON DELETE SET NULL,
-  is_correct   BOOLEAN NULL
-);
+  is_correct   BOOLEAN NULL,
+  PRIMARY KEY (response_id, submitted_at)
+) PARTITION BY RANGE (submitted_at);
+
+CREATE TABLE responses_default PARTITION OF responses DEFAULT;
 
 -- 11. Puntuaciones de equipo por ronda
+--     Particionada igual, por el fin de la ronda puntuada (round_ended_at =
+--     rounds.ended_at): puntuar de nuevo una ronda cae en la misma partición
 CREATE TABLE team_scores (
-  score_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
-  round_id UUID NOT NULL REFERENCES rounds(round_id)     ON DELETE CASCADE,
-  team_id  UUID NOT NULL REFERENCES teams(team_id)       ON DELETE CASCADE,
-  points   INTEGER NOT NULL DEFAULT 0
+  score_id       UUID NOT NULL DEFAULT uuid_generate_v7(),
+  round_id       UUID NOT NULL REFERENCES rounds(round_id)     ON DELETE CASCADE,
+  team_id        UUID NOT NULL REFERENCES teams(team_id)       ON DELETE CASCADE,
+  points         INTEGER NOT NULL DEFAULT 0,
+  round_ended_at TIMESTAMPTZ NOT NULL,
+  PRIMARY KEY (score_id, round_ended_at)
+) PARTITION BY RANGE (round_ended_at);
+
+CREATE TABLE team_scores_default PARTITION OF team_scores DEFAULT;
+
+-- 11.1. Partidas archivadas
+--     GameArchiver mueve las partidas terminadas (con rondas, preguntas,
+--     respuestas y puntuaciones) a ficheros en el disco del nodo que las
+--     archivó (node_id) y las borra de aquí. Se guardan también las preguntas
+--     del banco que usaron, para no repetirlas en la sala
+CREATE TABLE archived_games (
+  game_id           UUID PRIMARY KEY,
+  room_id           UUID NOT NULL REFERENCES rooms(room_id)   ON DELETE CASCADE,
+  node_id           TEXT NOT NULL,
+  bank_question_ids UUID[] NOT NULL DEFAULT '{}',
+  archived_at       TIMESTAMPTZ NOT NULL DEFAULT now()
 );
 
 -- 12. Índices de apoyo
@@ -95,9 +165,14 @@ CREATE INDEX ON players(room_id);
 CREATE INDEX ON players(team_id);
 CREATE INDEX ON teams(room_id);
 CREATE INDEX ON games(room_id);
+CREATE INDEX ON games(ended_at);
+CREATE INDEX ON archived_games(room_id);
 CREATE INDEX ON rounds(game_id);
+CREATE INDEX ON rounds(ended_at);
 CREATE INDEX ON questions(round_id);
 CREATE INDEX ON question_options(question_id);
+CREATE INDEX ON question_bank(difficulty);
+CREATE INDEX ON question_bank_options(bank_question_id);
 CREATE INDEX ON responses(question_id);
 CREATE INDEX ON responses(player_id);
 CREATE INDEX ON team_scores(round_id);
@@ -148,9 +223,16 @@ BEGIN
 END;
 $$ LANGUAGE plpgsql;
 
--- 15.2. Trigger sobre players
+-- 15.2. Triggers sobre players: solo al entrar en un equipo, no en cada
+--       UPDATE del jugador (así no se leen los settings si el equipo no cambia)
 CREATE TRIGGER trg_enforce_max_players_per_team
-BEFORE INSERT OR UPDATE ON players
+BEFORE INSERT ON players
 FOR EACH ROW
 WHEN (NEW.team_id IS NOT NULL)
 EXECUTE PROCEDURE enforce_max_players_per_team();
+
+CREATE TRIGGER trg_enforce_max_players_per_team_update
+BEFORE UPDATE OF team_id ON players
+FOR EACH ROW
+WHEN (NEW.team_id IS NOT NULL AND NEW.team_id IS DISTINCT FROM OLD.team_id)
+EXECUTE PROCEDURE enforce_max_players_per_team();
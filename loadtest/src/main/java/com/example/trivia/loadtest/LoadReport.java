@@ -0,0 +1,63 @@
+package com.example.trivia.loadtest;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias y errores por endpoint (operationId de {@code openapi.yml}),
+ * compartidos por todos los jugadores simulados.
+ */
+final class LoadReport {
+    record Row(String endpoint, long requests, long errors, double rps, double p50Ms, double p95Ms, double p99Ms) {
+        double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+    }
+
+    private static final class Endpoint {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+    }
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    /** @param ok false si la respuesta no fue 2xx o la petición falló */
+    void record(String endpoint, long micros, boolean ok) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.latency.record(micros);
+        if (!ok) {
+            stats.errors.increment();
+        }
+    }
+
+    /** Una fila por endpoint, ordenadas por nombre; {@code elapsed} es la duración de la prueba. */
+    List<Row> rows(Duration elapsed) {
+        double seconds = Math.max(elapsed.toMillis(), 1) / 1000.0;
+        List<Row> rows = new ArrayList<>();
+        endpoints.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    LatencyHistogram latency = entry.getValue().latency;
+                    long requests = latency.count();
+                    rows.add(new Row(entry.getKey(), requests, entry.getValue().errors.sum(), requests / seconds,
+                            latency.percentile(50) / 1000.0,
+                            latency.percentile(95) / 1000.0,
+                            latency.percentile(99) / 1000.0));
+                });
+        return rows;
+    }
+
+    static void print(List<Row> rows, PrintStream out) {
+        out.printf("%-20s %10s %8s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms");
+        for (Row row : rows) {
+            out.printf("%-20s %10d %8d %10.1f %10.2f %10.2f %10.2f%n", row.endpoint(), row.requests(), row.errors(),
+                    row.rps(), row.p50Ms(), row.p95Ms(), row.p99Ms());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.trivia.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Prueba de carga de extremo a extremo: arranca la aplicación y una base de
+ * datos embebida, simula {@code rooms × players} jugadores con el flujo REST
+ * de {@code openapi.yml} (ver {@link RoomSimulation}) y muestra peticiones/s y
+ * p50/p95/p99 por endpoint.
+ *
+ * Sale con código 1 si se supera algún umbral de {@code loadtest.thresholds},
+ * para poder usarla como comprobación de regresiones.
+ */
+public final class LoadTest {
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Scenario scenario = Scenario.fromSystemProperties();
+        LoadReport report = new LoadReport();
+        ObjectMapper objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .enable(SerializationFeature.INDENT_OUTPUT);
+
+        List<LoadReport.Row> rows;
+        try (LoadTestEnvironment env = LoadTestEnvironment.start(scenario.bankQuestions());
+             ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(threads)
+                    .build();
+            TriviaClient client = new TriviaClient(http, env.baseUri(), objectMapper, report);
+
+            System.out.printf("Load test: %d rooms x %d players, %d rounds of %d s, %d questions per round%n",
+                    scenario.rooms(), scenario.playersPerRoom(), scenario.rounds(), scenario.secondsPerRound(),
+                    scenario.questionsPerRound());
+            long start = System.nanoTime();
+            List<RoomSimulation> rooms = setUp(scenario, client, threads);
+            // Todas las partidas empiezan a la vez: los límites de ronda coinciden
+            List<Future<?>> games = new ArrayList<>();
+            for (RoomSimulation room : rooms) {
+                games.add(threads.submit(room::play));
+            }
+            for (Future<?> game : games) {
+                game.get();
+            }
+            rows = report.rows(Duration.ofNanos(System.nanoTime() - start));
+            System.out.printf("%d of %d rooms played%n", rooms.size(), scenario.rooms());
+        }
+
+        LoadReport.print(rows, System.out);
+        String result = System.getProperty("loadtest.result");
+        if (result != null) {
+            Path file = Path.of(result);
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            objectMapper.writeValue(file.toFile(), Map.of("scenario", scenario, "endpoints", rows));
+        }
+
+        List<String> violations = List.of();
+        String thresholds = System.getProperty("loadtest.thresholds");
+        if (thresholds != null && Files.exists(Path.of(thresholds))) {
+            violations = Thresholds.load(Path.of(thresholds)).violations(rows);
+        }
+        violations.forEach(violation -> System.out.println("THRESHOLD EXCEEDED " + violation));
+        // spring.main.keep-alive deja un hilo vivo: hay que salir explícitamente
+        System.exit(violations.isEmpty() ? 0 : 1);
+    }
+
+    /** Crea las salas repartidas a lo largo del ramp-up; devuelve las que quedaron listas. */
+    private static List<RoomSimulation> setUp(Scenario scenario, TriviaClient client, ExecutorService threads)
+            throws Exception {
+        long delayNanos = scenario.rampUp().toNanos() / Math.max(scenario.rooms(), 1);
+        List<RoomSimulation> rooms = new ArrayList<>();
+        List<Future<Boolean>> ready = new ArrayList<>();
+        for (int i = 0; i < scenario.rooms(); i++) {
+            RoomSimulation room = new RoomSimulation(client, scenario, i);
+            long delay = delayNanos * i;
+            rooms.add(room);
+            ready.add(threads.submit(() -> {
+                Thread.sleep(Duration.ofNanos(delay));
+                return room.setUp();
+            }));
+        }
+        List<RoomSimulation> readyRooms = new ArrayList<>();
+        for (int i = 0; i < rooms.size(); i++) {
+            if (ready.get(i).get()) {
+                readyRooms.add(rooms.get(i));
+            }
+        }
+        return readyRooms;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.trivia.loadtest;
+
+import com.example.trivia.TriviaApplication;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * PostgreSQL embebido + la aplicación completa con Tomcat en un puerto libre,
+ * en el mismo proceso que el generador de carga. A diferencia de los
+ * benchmarks, las peticiones pasan por HTTP, filtros y serialización JSON.
+ */
+final class LoadTestEnvironment implements AutoCloseable {
+    private final EmbeddedPostgres postgres;
+    private final ConfigurableApplicationContext context;
+    private final URI baseUri;
+
+    private LoadTestEnvironment(EmbeddedPostgres postgres, ConfigurableApplicationContext context, URI baseUri) {
+        this.postgres = postgres;
+        this.context = context;
+        this.baseUri = baseUri;
+    }
+
+    /** @param bankQuestions preguntas 'easy' de respuesta corta que se cargan en el banco */
+    static LoadTestEnvironment start(int bankQuestions) throws IOException, SQLException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.start();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection()) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute(readSchema());
+            }
+            // Antes de arrancar: el índice de preguntas se carga al iniciar la aplicación
+            seedQuestionBank(connection, bankQuestions);
+        }
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TriviaApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "spring.datasource.username=postgres",
+                        "spring.datasource.password=postgres",
+                        "spring.docker.compose.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.example.trivia=WARN")
+                .run();
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return new LoadTestEnvironment(postgres, context, URI.create("http://localhost:" + port));
+    }
+
+    URI baseUri() {
+        return baseUri;
+    }
+
+    private static void seedQuestionBank(Connection connection, int questions) throws SQLException {
+        String sql = """
+            INSERT INTO question_bank (type, difficulty, text, correct_answers)
+            SELECT 'short_answer', 'easy', 'Load test question ' || i, ARRAY['Pulp Fiction']
+            FROM generate_series(1, ?) AS i
+            """;
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, questions);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static String readSchema() throws IOException {
+        try (InputStream in = LoadTestEnvironment.class.getResourceAsStream("/schema.sql")) {
+            if (in == null) {
+                throw new IOException("schema.sql not found on the load test classpath");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        postgres.close();
+    }
+}
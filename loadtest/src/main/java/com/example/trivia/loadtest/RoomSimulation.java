@@ -0,0 +1,141 @@
+package com.example.trivia.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Una sala de la prueba: el host la crea, los jugadores se unen y el host
+ * ajusta los settings y crea la partida. Después cada jugador, en su propio
+ * hilo virtual, juega todas las rondas como lo haría un cliente real:
+ *
+ * <ol>
+ *   <li>al empezar la ronda pide sus preguntas (todos a la vez: pico de getRoundQuestions),</li>
+ *   <li>contesta cada pregunta tras un tiempo de reflexión aleatorio,</li>
+ *   <li>al acabar la ronda pide los resultados (pico de getRoundResults).</li>
+ * </ol>
+ *
+ * Como todas las salas crean la partida a la vez, los límites de ronda de
+ * todas coinciden y los picos se suman.
+ */
+final class RoomSimulation {
+    // Desfase máximo de los jugadores respecto al límite de ronda (relojes, red)
+    private static final long BOUNDARY_JITTER_MS = 250;
+    // Margen para no contestar en el último instante y recibir 400
+    private static final Duration ANSWER_MARGIN = Duration.ofMillis(500);
+    private static final String CORRECT_ANSWER = "Pulp Fiction";
+    private static final String WRONG_ANSWER = "Reservoir Dogs";
+
+    private final TriviaClient client;
+    private final Scenario scenario;
+    private final int index;
+
+    private String roomId;
+    private TriviaClient.Player host;
+    private final List<TriviaClient.Player> players = new ArrayList<>();
+
+    RoomSimulation(TriviaClient client, Scenario scenario, int index) {
+        this.client = client;
+        this.scenario = scenario;
+        this.index = index;
+    }
+
+    /** Sala, jugadores y settings. False si alguna llamada imprescindible falló. */
+    boolean setUp() {
+        JsonNode room = client.createRoom();
+        if (room == null) {
+            return false;
+        }
+        roomId = room.path("roomId").asText();
+        host = client.joinRoom(roomId, "host-" + index);
+        if (host == null) {
+            return false;
+        }
+        players.add(host);
+        for (int i = 1; i < scenario.playersPerRoom(); i++) {
+            TriviaClient.Player player = client.joinRoom(roomId, "player-" + index + "-" + i);
+            if (player != null) {
+                players.add(player);
+            }
+        }
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("settingsId", room.path("settingsId").asText());
+        settings.put("rounds", scenario.rounds());
+        settings.put("timePerRound", scenario.secondsPerRound());
+        settings.put("questionsPerRound", scenario.questionsPerRound());
+        settings.put("difficulty", "easy");
+        settings.put("maxPlayersPerTeam", scenario.playersPerRoom());
+        return client.updateSettings(roomId, settings, host) != null;
+    }
+
+    /** Crea la partida y espera a que todos los jugadores terminen la última ronda. */
+    void play() {
+        JsonNode game = client.createGame(roomId, host);
+        if (game == null) {
+            return;
+        }
+        String gameId = game.path("gameId").asText();
+        JsonNode rounds = client.getRounds(gameId, host);
+        if (rounds == null) {
+            return;
+        }
+
+        try (ExecutorService playerThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (TriviaClient.Player player : players) {
+                playerThreads.execute(() -> playRounds(gameId, rounds, player));
+            }
+        }
+    }
+
+    private void playRounds(String gameId, JsonNode rounds, TriviaClient.Player player) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (JsonNode round : rounds) {
+            String roundId = round.path("roundId").asText();
+            Instant startedAt = Instant.parse(round.path("createdAt").asText());
+            Instant endedAt = Instant.parse(round.path("endedAt").asText());
+
+            sleepUntil(startedAt.plusMillis(random.nextLong(BOUNDARY_JITTER_MS)));
+            JsonNode questions = client.getRoundQuestions(gameId, roundId, player);
+            if (questions == null) {
+                continue;
+            }
+
+            for (JsonNode question : questions) {
+                sleep(random.nextLong(scenario.thinkTime().toMillis() + 1));
+                if (Instant.now().isAfter(endedAt.minus(ANSWER_MARGIN))) {
+                    break; // Se le acabó el tiempo
+                }
+                String questionId = question.path("questionId").asText();
+                String answer = random.nextDouble() < scenario.correctRatio() ? CORRECT_ANSWER : WRONG_ANSWER;
+                client.submitAnswer(gameId, roundId, questionId, player, answer);
+            }
+
+            sleepUntil(endedAt.plusMillis(random.nextLong(BOUNDARY_JITTER_MS)));
+            client.getRoundResults(gameId, roundId, player);
+        }
+    }
+
+    private static void sleepUntil(Instant instant) {
+        sleep(Duration.between(Instant.now(), instant).toMillis());
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
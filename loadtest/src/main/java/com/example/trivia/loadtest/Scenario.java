@@ -0,0 +1,42 @@
+package com.example.trivia.loadtest;
+
+import java.time.Duration;
+
+/**
+ * N salas × M jugadores jugando partidas completas. Se configura con
+ * propiedades de sistema {@code -Dloadtest.*} (ver el pom).
+ *
+ * @param thinkTime tiempo máximo que tarda un jugador en contestar cada pregunta
+ * @param correctRatio fracción de respuestas correctas
+ */
+record Scenario(
+        int rooms,
+        int playersPerRoom,
+        int rounds,
+        int questionsPerRound,
+        int secondsPerRound,
+        Duration rampUp,
+        Duration thinkTime,
+        double correctRatio) {
+
+    static Scenario fromSystemProperties() {
+        int secondsPerRound = Integer.getInteger("loadtest.seconds-per-round", 15);
+        int questionsPerRound = Integer.getInteger("loadtest.questions", 5);
+        return new Scenario(
+                Integer.getInteger("loadtest.rooms", 50),
+                Integer.getInteger("loadtest.players", 8),
+                Integer.getInteger("loadtest.rounds", 3),
+                questionsPerRound,
+                secondsPerRound,
+                Duration.ofMillis(Long.getLong("loadtest.ramp-up-ms", 5_000)),
+                // Por defecto las respuestas ocupan unos dos tercios de la ronda
+                Duration.ofMillis(Long.getLong("loadtest.think-time-ms",
+                        secondsPerRound * 1000L * 2 / 3 / questionsPerRound)),
+                Double.parseDouble(System.getProperty("loadtest.correct-ratio", "0.6")));
+    }
+
+    /** Tamaño del banco de preguntas: una por cada pregunta jugada en la prueba. */
+    int bankQuestions() {
+        return rooms * rounds * questionsPerRound;
+    }
+}
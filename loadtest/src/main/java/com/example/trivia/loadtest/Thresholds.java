@@ -0,0 +1,68 @@
+package com.example.trivia.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Umbrales de {@code thresholds.properties}. Claves por endpoint
+ * ({@code submitAnswer.p99-ms}, {@code .p95-ms}, {@code .p50-ms},
+ * {@code .min-rps}, {@code .max-error-rate}) y {@code max-error-rate} para
+ * todos. Un endpoint sin clave no se comprueba.
+ */
+final class Thresholds {
+    private final Properties properties;
+
+    private Thresholds(Properties properties) {
+        this.properties = properties;
+    }
+
+    static Thresholds load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(in);
+        }
+        return new Thresholds(properties);
+    }
+
+    /** Umbrales superados, uno por línea; vacío si la prueba pasa. */
+    List<String> violations(List<LoadReport.Row> rows) {
+        List<String> violations = new ArrayList<>();
+        for (LoadReport.Row row : rows) {
+            String name = row.endpoint();
+            max(violations, name, "p50-ms", row.p50Ms());
+            max(violations, name, "p95-ms", row.p95Ms());
+            max(violations, name, "p99-ms", row.p99Ms());
+            max(violations, name, "max-error-rate", row.errorRate(), value("max-error-rate"));
+            Double minRps = value(name + ".min-rps");
+            if (minRps != null && row.rps() < minRps) {
+                violations.add("%s: %.1f req/s < %.1f".formatted(name, row.rps(), minRps));
+            }
+        }
+        return violations;
+    }
+
+    private void max(List<String> violations, String endpoint, String key, double actual) {
+        max(violations, endpoint, key, actual, null);
+    }
+
+    private void max(List<String> violations, String endpoint, String key, double actual, Double fallback) {
+        Double limit = value(endpoint + "." + key);
+        if (limit == null) {
+            limit = fallback;
+        }
+        if (limit != null && actual > limit) {
+            violations.add("%s: %s %.3f > %.3f".formatted(endpoint, key, actual, limit));
+        }
+    }
+
+    private Double value(String key) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? null : Double.valueOf(value.strip());
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.trivia.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Cliente HTTP de la API REST ({@code openapi.yml}) que mide cada llamada en
+ * el {@link LoadReport} con el operationId como endpoint. Las respuestas que
+ * no son 2xx cuentan como error y devuelven {@code null}; el jugador simulado
+ * decide si puede seguir.
+ */
+final class TriviaClient {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final LoadReport report;
+
+    TriviaClient(HttpClient http, URI baseUri, ObjectMapper objectMapper, LoadReport report) {
+        this.http = http;
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.report = report;
+    }
+
+    /** Jugador unido a una sala, con el token que devuelve joinRoom. */
+    record Player(String playerId, String token) {}
+
+    JsonNode createRoom() {
+        return body(send("createRoom", post("/rooms", Map.of()), null));
+    }
+
+    Player joinRoom(String roomId, String username) {
+        HttpResponse<byte[]> response = send("joinRoom",
+                post("/rooms/" + roomId + "/players", Map.of("username", username)), null);
+        JsonNode player = body(response);
+        if (player == null) {
+            return null;
+        }
+        return new Player(player.path("playerId").asText(),
+                response.headers().firstValue("X-Player-Token").orElse(null));
+    }
+
+    JsonNode updateSettings(String roomId, Map<String, Object> settings, Player host) {
+        return body(send("updateSettings", json(HttpRequest.newBuilder(uri("/rooms/" + roomId + "/settings"))
+                .PUT(publisher(settings))), host));
+    }
+
+    JsonNode createGame(String roomId, Player host) {
+        return body(send("createGame", post("/games", Map.of("roomId", roomId)), host));
+    }
+
+    JsonNode getRounds(String gameId, Player player) {
+        return body(send("getRounds", get("/games/" + gameId + "/rounds"), player));
+    }
+
+    JsonNode getRoundQuestions(String gameId, String roundId, Player player) {
+        return body(send("getRoundQuestions", get("/games/" + gameId + "/rounds/" + roundId + "/questions"), player));
+    }
+
+    boolean submitAnswer(String gameId, String roundId, String questionId, Player player, String answer) {
+        return send("submitAnswer", post(answerPath(gameId, roundId, questionId, player), Map.of("answer", answer)),
+                player) != null;
+    }
+
+    JsonNode getRoundResults(String gameId, String roundId, Player player) {
+        return body(send("getRoundResults", get("/games/" + gameId + "/rounds/" + roundId + "/results"), player));
+    }
+
+    private static String answerPath(String gameId, String roundId, String questionId, Player player) {
+        return "/games/" + gameId + "/rounds/" + roundId + "/questions/" + questionId + "/players/" + player.playerId();
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, Map<String, ?> body) {
+        return json(HttpRequest.newBuilder(uri(path)).POST(publisher(body)));
+    }
+
+    private static HttpRequest.Builder json(HttpRequest.Builder builder) {
+        return builder.header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher publisher(Map<String, ?> body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private URI uri(String path) {
+        return baseUri.resolve(path);
+    }
+
+    /** La respuesta si fue 2xx, si no null. */
+    private HttpResponse<byte[]> send(String endpoint, HttpRequest.Builder builder, Player player) {
+        builder.timeout(TIMEOUT);
+        if (player != null && player.token() != null) {
+            builder.header("Authorization", "Bearer " + player.token());
+        }
+        HttpRequest request = builder.build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            boolean ok = response.statusCode() / 100 == 2;
+            report.record(endpoint, (System.nanoTime() - start) / 1_000, ok);
+            return ok ? response : null;
+        } catch (IOException e) {
+            report.record(endpoint, (System.nanoTime() - start) / 1_000, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private JsonNode body(HttpResponse<byte[]> response) {
+        if (response == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.trivia.archive;
+
+import com.example.trivia.model.Game;
+import com.example.trivia.model.Round;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A finished game with everything that hung from it in Postgres (rounds,
+ * questions with their options and answers, team scores), as stored in a
+ * {@link GameArchive} segment. Players, teams and settings stay in Postgres.
+ */
+public record ArchivedGame(String gameId, String roomId, Instant startedAt, Instant endedAt, String settingsId,
+        List<ArchivedRound> rounds) {
+
+    public record ArchivedRound(String roundId, int number, Instant startedAt, Instant endedAt,
+            List<ArchivedQuestion> questions, List<TeamPoints> teamScores) {}
+
+    public record ArchivedQuestion(String questionId, String type, String text, String mediaUrl,
+            List<String> correctAnswers, List<Option> options, List<Answer> answers) {}
+
+    public record Option(String optionId, String text, boolean correct) {}
+
+    public record Answer(String responseId, String playerId, Instant submittedAt, String textReply, String optionId,
+            Boolean correct) {}
+
+    public record TeamPoints(String teamId, int points) {}
+
+    /** The game as getGame returns it. */
+    public Game toGame() {
+        return new Game(UUID.fromString(gameId), UUID.fromString(roomId), timestamp(startedAt), timestamp(endedAt),
+                settingsId != null ? UUID.fromString(settingsId) : null);
+    }
+
+    /** The rounds as getRounds returns them, in round order. */
+    public List<Round> toRounds() {
+        UUID id = UUID.fromString(gameId);
+        return rounds.stream()
+                .map(archived -> new Round(UUID.fromString(archived.roundId()), id, archived.number(),
+                        timestamp(archived.startedAt()), timestamp(archived.endedAt())))
+                .toList();
+    }
+
+    private static Timestamp timestamp(Instant instant) {
+        return instant != null ? Timestamp.from(instant) : null;
+    }
+}
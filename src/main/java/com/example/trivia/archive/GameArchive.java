@@ -0,0 +1,259 @@
+package com.example.trivia.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Finished games moved out of Postgres by {@link GameArchiver}, kept in
+ * append-only segment files in {@code trivia.archive.dir}.
+ *
+ * Each archiver run writes one new segment and never touches it again:
+ * {@code games-NNNNNNNN.seg} holds the games as CBOR records sorted by gameId,
+ * {@code games-NNNNNNNN.idx} one fixed-size entry per game (gameId, offset,
+ * length) in the same order. Both files are memory-mapped; a lookup binary
+ * searches the indexes, newest segment first, and decodes one record. A
+ * segment counts only once its index has been renamed into place, so a run
+ * that dies half-way leaves nothing behind but a temporary file.
+ *
+ * The directory is local to the node: {@code archived_games} records which
+ * node holds each game so RoomAffinityFilter can send requests there.
+ */
+@Component
+public class GameArchive {
+    private static final Logger log = LoggerFactory.getLogger(GameArchive.class);
+
+    private static final int MAGIC = 0x54524741; // "TRGA"
+    private static final int FORMAT = 1;
+    private static final int HEADER_BYTES = 12; // magic, format, entry count
+    private static final int ENTRY_BYTES = 28; // gameId (2 longs), offset, length
+
+    private final Path dir;
+    private final JdbcTemplate jdbcTemplate;
+    // Own mapper: the file format must not change with the HTTP JSON settings
+    private final ObjectMapper cbor = CBORMapper.builder().findAndAddModules().build();
+    // Newest first
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Cache<String, String> nodeByGame;
+    private long nextSegment = 1;
+
+    public GameArchive(
+            JdbcTemplate jdbcTemplate,
+            @Value("${trivia.archive.dir:archive}") String dir,
+            @Value("${trivia.cache.ttl-minutes:120}") long ttlMinutes,
+            @Value("${trivia.cache.max-games:10000}") long maxGames) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dir = Path.of(dir);
+        this.nodeByGame = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .maximumSize(maxGames)
+                .build();
+    }
+
+    /** Maps the existing segments and removes what an interrupted run left. */
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(dir);
+        List<Path> indexes = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "games-*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    Files.delete(file);
+                } else if (name.endsWith(".idx")) {
+                    indexes.add(file);
+                }
+            }
+        }
+        indexes.sort(Comparator.comparing(Path::toString).reversed());
+        for (Path index : indexes) {
+            segments.add(Segment.open(dataFile(index), index));
+        }
+        if (!indexes.isEmpty()) {
+            nextSegment = sequence(indexes.get(0)) + 1;
+        }
+        log.info("Game archive in {}: {} segments", dir.toAbsolutePath(), segments.size());
+    }
+
+    public Optional<ArchivedGame> find(String gameId) {
+        UUID id;
+        try {
+            id = UUID.fromString(gameId);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        for (Segment segment : segments) {
+            byte[] record = segment.find(id);
+            if (record != null) {
+                try {
+                    return Optional.of(cbor.readValue(record, ArchivedGame.class));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Corrupt record for game " + gameId + " in " + segment.data, e);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean contains(String gameId) {
+        UUID id = UUID.fromString(gameId);
+        return segments.stream().anyMatch(segment -> segment.find(id) != null);
+    }
+
+    /** Node whose archive holds the game, or empty if the game was never archived. */
+    public Optional<String> nodeOf(String gameId) {
+        String nodeId = nodeByGame.getIfPresent(gameId);
+        if (nodeId == null) {
+            UUID id;
+            try {
+                id = UUID.fromString(gameId);
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+            List<String> found = jdbcTemplate.queryForList(
+                    "SELECT node_id FROM archived_games WHERE game_id = ?", String.class, id);
+            if (found.isEmpty()) {
+                return Optional.empty();
+            }
+            nodeId = found.get(0);
+            nodeByGame.put(gameId, nodeId);
+        }
+        return Optional.of(nodeId);
+    }
+
+    /** Writes the games as one new segment; returns once it is on disk and searchable. */
+    public void append(List<ArchivedGame> games) throws IOException {
+        List<ArchivedGame> sorted = new ArrayList<>(games);
+        sorted.sort((a, b) -> compare(UUID.fromString(a.gameId()), UUID.fromString(b.gameId())));
+
+        appendLock.lock();
+        try {
+            String name = "games-%08d".formatted(nextSegment);
+            Path data = dir.resolve(name + ".seg");
+            Path index = dir.resolve(name + ".idx");
+            Path dataTmp = dir.resolve(name + ".seg.tmp");
+            Path indexTmp = dir.resolve(name + ".idx.tmp");
+
+            ByteBuffer entries = ByteBuffer.allocate(HEADER_BYTES + ENTRY_BYTES * sorted.size())
+                    .order(ByteOrder.BIG_ENDIAN)
+                    .putInt(MAGIC).putInt(FORMAT).putInt(sorted.size());
+            try (FileChannel out = FileChannel.open(dataTmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                long offset = 0;
+                for (ArchivedGame game : sorted) {
+                    byte[] record = cbor.writeValueAsBytes(game);
+                    UUID id = UUID.fromString(game.gameId());
+                    entries.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits())
+                            .putLong(offset).putInt(record.length);
+                    writeFully(out, ByteBuffer.wrap(record));
+                    offset += record.length;
+                }
+                out.force(true);
+            }
+            try (FileChannel out = FileChannel.open(indexTmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                writeFully(out, entries.flip());
+                out.force(true);
+            }
+            // Index last: it is what makes the segment exist
+            Files.move(dataTmp, data, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(indexTmp, index, StandardCopyOption.ATOMIC_MOVE);
+
+            segments.add(0, Segment.open(data, index));
+            nextSegment++;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    /** Unsigned, so the order on disk matches the ids' text order and never depends on UUID.compareTo. */
+    private static int compare(UUID a, UUID b) {
+        int cmp = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return cmp != 0 ? cmp : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    private static Path dataFile(Path index) {
+        String name = index.getFileName().toString();
+        return index.resolveSibling(name.substring(0, name.length() - ".idx".length()) + ".seg");
+    }
+
+    private static long sequence(Path index) {
+        String name = index.getFileName().toString();
+        return Long.parseLong(name.substring("games-".length(), name.length() - ".idx".length()));
+    }
+
+    /** One mapped segment. Only absolute reads are used, so it is shared by all threads. */
+    private record Segment(Path data, MappedByteBuffer records, MappedByteBuffer index, int count) {
+
+        static Segment open(Path data, Path index) throws IOException {
+            MappedByteBuffer records = map(data);
+            MappedByteBuffer entries = map(index);
+            if (entries.getInt(0) != MAGIC || entries.getInt(4) != FORMAT) {
+                throw new IOException("Not a game archive index: " + index);
+            }
+            return new Segment(data, records, entries, entries.getInt(8));
+        }
+
+        private static MappedByteBuffer map(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                // The mapping stays valid after the channel is closed
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+
+        /** The game's record, or null if it is not in this segment. */
+        byte[] find(UUID id) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int entry = HEADER_BYTES + mid * ENTRY_BYTES;
+                int cmp = compare(new UUID(index.getLong(entry), index.getLong(entry + 8)), id);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    byte[] record = new byte[index.getInt(entry + 24)];
+                    records.get(Math.toIntExact(index.getLong(entry + 16)), record);
+                    return record;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.trivia.archive;
+
+import com.example.trivia.cache.GameCache;
+import com.example.trivia.cluster.RoomRing;
+import com.example.trivia.config.BackgroundThreads;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves games that ended more than {@code afterHours} ago out of Postgres and
+ * into the {@link GameArchive}, {@code batchSize} games per run, every
+ * {@code intervalMinutes}.
+ *
+ * Each node archives the games of the rooms it owns. The games are written to
+ * a new segment first; only once it is on disk are they recorded in
+ * {@code archived_games} and deleted, which cascades to their rounds,
+ * questions, options, responses and team scores. A run that dies in between
+ * finds the games again next time, sees they are already archived and just
+ * finishes the delete.
+ */
+@Component
+public class GameArchiver {
+    private static final Logger log = LoggerFactory.getLogger(GameArchiver.class);
+    // Same margin as the round windows of RoundScoringService
+    private static final Duration WINDOW_MARGIN = Duration.ofMinutes(1);
+
+    private static final String RECORD_SQL = """
+        INSERT INTO archived_games (game_id, room_id, node_id, bank_question_ids)
+        SELECT g.game_id, g.room_id, ?,
+               ARRAY(SELECT DISTINCT q.bank_question_id
+                     FROM rounds r
+                     JOIN questions q ON q.round_id = r.round_id
+                     WHERE r.game_id = g.game_id AND q.bank_question_id IS NOT NULL)
+        FROM games g
+        WHERE g.game_id = ANY(?)
+        ON CONFLICT (game_id) DO NOTHING
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactions;
+    private final GameArchive archive;
+    private final GameCache gameCache;
+    private final RoomRing roomRing;
+    private final int afterHours;
+    private final int batchSize;
+    private final long intervalMinutes;
+    private final ScheduledExecutorService scheduler;
+
+    public GameArchiver(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactions,
+            GameArchive archive,
+            GameCache gameCache,
+            RoomRing roomRing,
+            BackgroundThreads backgroundThreads,
+            @Value("${trivia.archive.after-hours:24}") int afterHours,
+            @Value("${trivia.archive.batch-size:200}") int batchSize,
+            @Value("${trivia.archive.interval-minutes:10}") long intervalMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactions = transactions;
+        this.archive = archive;
+        this.gameCache = gameCache;
+        this.roomRing = roomRing;
+        this.afterHours = afterHours;
+        this.batchSize = batchSize;
+        this.intervalMinutes = intervalMinutes;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(backgroundThreads.factory("game-archiver"));
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::archiveQuietly, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    /** One batch of this node's oldest finished games; returns how many were archived. */
+    public int archive() throws IOException {
+        List<UUID> gameIds = candidates();
+        if (gameIds.isEmpty()) {
+            return 0;
+        }
+
+        List<UUID> unarchived = gameIds.stream().filter(id -> !archive.contains(id.toString())).toList();
+        List<ArchivedGame> games = unarchived.isEmpty() ? List.of() : load(unarchived);
+        if (!games.isEmpty()) {
+            archive.append(games);
+        }
+
+        UUID[] ids = gameIds.toArray(UUID[]::new);
+        transactions.executeWithoutResult(status -> {
+            jdbcTemplate.update(RECORD_SQL, ps -> {
+                ps.setString(1, roomRing.localNode().id());
+                ps.setArray(2, ps.getConnection().createArrayOf("uuid", ids));
+            });
+            jdbcTemplate.update("DELETE FROM games WHERE game_id = ANY(?)",
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids)));
+        });
+        for (UUID gameId : gameIds) {
+            gameCache.evictGame(gameId.toString());
+        }
+        log.info("Archived {} games", gameIds.size());
+        return gameIds.size();
+    }
+
+    /**
+     * The oldest {@code batchSize} archivable games of the rooms this node
+     * owns. Ownership is applied before the LIMIT, so the games of other nodes
+     * (even ones that are down) never fill the batch.
+     */
+    private List<UUID> candidates() {
+        if (!roomRing.isClustered()) {
+            return jdbcTemplate.queryForList("""
+                SELECT game_id
+                FROM games
+                WHERE ended_at < now() - make_interval(hours => ?)
+                ORDER BY ended_at
+                LIMIT ?
+                """, UUID.class, afterHours, batchSize);
+        }
+        // Rooms are assigned by hash in Java: find the rooms with archivable games, keep ours
+        UUID[] localRooms = jdbcTemplate.queryForList(
+                        "SELECT DISTINCT room_id FROM games WHERE ended_at < now() - make_interval(hours => ?)",
+                        UUID.class, afterHours).stream()
+                .filter(roomId -> roomRing.isLocal(roomId.toString()))
+                .toArray(UUID[]::new);
+        if (localRooms.length == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.query("""
+            SELECT game_id
+            FROM games
+            WHERE ended_at < now() - make_interval(hours => ?) AND room_id = ANY(?)
+            ORDER BY ended_at
+            LIMIT ?
+            """, ps -> {
+            ps.setInt(1, afterHours);
+            ps.setArray(2, ps.getConnection().createArrayOf("uuid", localRooms));
+            ps.setInt(3, batchSize);
+        }, (rs, rowNum) -> (UUID) rs.getObject("game_id"));
+    }
+
+    private void archiveQuietly() {
+        try {
+            archive();
+        } catch (RuntimeException | IOException e) {
+            log.error("Game archiving failed", e);
+        }
+    }
+
+    /** The games with everything that hangs from them, read in one query per table. */
+    private List<ArchivedGame> load(List<UUID> gameIds) {
+        record GameRow(String gameId, String roomId, Instant startedAt, Instant endedAt, String settingsId) {}
+        record RoundRow(String roundId, int number, Instant startedAt, Instant endedAt) {}
+        record QuestionRow(String questionId, String type, String text, String mediaUrl, List<String> correctAnswers) {}
+
+        UUID[] ids = gameIds.toArray(UUID[]::new);
+        List<GameRow> games = new ArrayList<>();
+        query("SELECT game_id, room_id, started_at, ended_at, settings_id FROM games WHERE game_id = ANY(?)",
+                ids, rs -> games.add(new GameRow(rs.getString("game_id"), rs.getString("room_id"),
+                        instant(rs, "started_at"), instant(rs, "ended_at"), rs.getString("settings_id"))));
+        if (games.isEmpty()) {
+            return List.of(); // Deleted since they were picked
+        }
+
+        Map<String, List<RoundRow>> rounds = new HashMap<>();
+        query("SELECT round_id, game_id, number, started_at, ended_at FROM rounds WHERE game_id = ANY(?) ORDER BY number",
+                ids, rs -> rounds.computeIfAbsent(rs.getString("game_id"), k -> new ArrayList<>())
+                        .add(new RoundRow(rs.getString("round_id"), rs.getInt("number"),
+                                instant(rs, "started_at"), instant(rs, "ended_at"))));
+
+        Map<String, List<QuestionRow>> questions = new HashMap<>();
+        query("""
+            SELECT q.question_id, q.round_id, q.type, q.text, q.media_url, q.correct_answers
+            FROM questions q
+            JOIN rounds r ON r.round_id = q.round_id
+            WHERE r.game_id = ANY(?)
+            ORDER BY q.question_id
+            """, ids, rs -> questions.computeIfAbsent(rs.getString("round_id"), k -> new ArrayList<>())
+                .add(new QuestionRow(rs.getString("question_id"), rs.getString("type"), rs.getString("text"),
+                        rs.getString("media_url"), textArray(rs.getArray("correct_answers")))));
+
+        Map<String, List<ArchivedGame.Option>> options = new HashMap<>();
+        query("""
+            SELECT o.option_id, o.question_id, o.text, o.is_correct
+            FROM question_options o
+            JOIN questions q ON q.question_id = o.question_id
+            JOIN rounds r ON r.round_id = q.round_id
+            WHERE r.game_id = ANY(?)
+            ORDER BY o.option_id
+            """, ids, rs -> options.computeIfAbsent(rs.getString("question_id"), k -> new ArrayList<>())
+                .add(new ArchivedGame.Option(rs.getString("option_id"), rs.getString("text"),
+                        rs.getBoolean("is_correct"))));
+
+        // responses and team_scores are partitioned by time: bound them by the games' span so only
+        // the partitions of those days are read. Any timestamp may be missing: the span covers the ones there are
+        List<Instant> times = new ArrayList<>();
+        for (GameRow game : games) {
+            times.add(game.startedAt());
+            times.add(game.endedAt()); // Never null: picked by ended_at
+        }
+        for (List<RoundRow> gameRounds : rounds.values()) {
+            for (RoundRow round : gameRounds) {
+                times.add(round.startedAt());
+                times.add(round.endedAt());
+            }
+        }
+        times.removeIf(Objects::isNull);
+        Instant from = Collections.min(times);
+        Instant to = Collections.max(times);
+        Timestamp windowStart = Timestamp.from(from.minus(WINDOW_MARGIN));
+        Timestamp windowEnd = Timestamp.from(to.plus(WINDOW_MARGIN));
+
+        Map<String, List<ArchivedGame.Answer>> answers = new HashMap<>();
+        query("""
+            SELECT s.response_id, s.question_id, s.player_id, s.submitted_at, s.text_reply, s.option_id, s.is_correct
+            FROM responses s
+            JOIN questions q ON q.question_id = s.question_id
+            JOIN rounds r ON r.round_id = q.round_id
+            WHERE r.game_id = ANY(?) AND s.submitted_at BETWEEN ? AND ?
+            ORDER BY s.submitted_at
+            """, ids, rs -> answers.computeIfAbsent(rs.getString("question_id"), k -> new ArrayList<>())
+                .add(new ArchivedGame.Answer(rs.getString("response_id"), rs.getString("player_id"),
+                        instant(rs, "submitted_at"), rs.getString("text_reply"), rs.getString("option_id"),
+                        (Boolean) rs.getObject("is_correct"))), windowStart, windowEnd);
+
+        Map<String, List<ArchivedGame.TeamPoints>> teamScores = new HashMap<>();
+        query("""
+            SELECT ts.round_id, ts.team_id, ts.points
+            FROM team_scores ts
+            JOIN rounds r ON r.round_id = ts.round_id
+            WHERE r.game_id = ANY(?) AND ts.round_ended_at BETWEEN ? AND ?
+            ORDER BY ts.points DESC, ts.team_id
+            """, ids, rs -> teamScores.computeIfAbsent(rs.getString("round_id"), k -> new ArrayList<>())
+                .add(new ArchivedGame.TeamPoints(rs.getString("team_id"), rs.getInt("points"))),
+                windowStart, windowEnd);
+
+        return games.stream().map(game -> new ArchivedGame(game.gameId(), game.roomId(), game.startedAt(),
+                game.endedAt(), game.settingsId(),
+                rounds.getOrDefault(game.gameId(), List.of()).stream().map(round -> new ArchivedGame.ArchivedRound(
+                        round.roundId(), round.number(), round.startedAt(), round.endedAt(),
+                        questions.getOrDefault(round.roundId(), List.of()).stream()
+                                .map(q -> new ArchivedGame.ArchivedQuestion(q.questionId(), q.type(), q.text(),
+                                        q.mediaUrl(), q.correctAnswers(),
+                                        options.getOrDefault(q.questionId(), List.of()),
+                                        answers.getOrDefault(q.questionId(), List.of())))
+                                .toList(),
+                        teamScores.getOrDefault(round.roundId(), List.of()))).toList()))
+                .toList();
+    }
+
+    /** Runs {@code sql} with the game ids as its first parameter, followed by {@code args}. */
+    private void query(String sql, UUID[] gameIds, RowCallbackHandler handler, Object... args) {
+        jdbcTemplate.query(sql, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("uuid", gameIds));
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 2, args[i]);
+            }
+        }, handler);
+    }
+
+    private static Instant instant(ResultSet rs, String column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+
+    private static List<String> textArray(Array array) throws SQLException {
+        return array == null ? null : Arrays.asList((String[]) array.getArray());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.trivia.auth;
+
+import com.example.trivia.model.Player;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Finds out which player of a room is making a request: from the signed token
+ * in {@code Authorization: Bearer ...} or, while clients migrate and if
+ * {@code trivia.auth.session-fallback} is on, from the {@code Player} stored
+ * in the HTTP session under the room id.
+ */
+@Component
+public class PlayerAuthenticator {
+    public static final String TOKEN_HEADER = "X-Player-Token";
+    private static final String BEARER = "Bearer ";
+
+    private final PlayerTokenService tokens;
+    private final boolean sessionFallback;
+
+    public PlayerAuthenticator(
+            PlayerTokenService tokens,
+            @Value("${trivia.auth.session-fallback:true}") boolean sessionFallback) {
+        this.tokens = tokens;
+        this.sessionFallback = sessionFallback;
+    }
+
+    /** The player making the request in the given room, or null. */
+    public PlayerToken authenticate(HttpServletRequest request, String roomId) {
+        PlayerToken token = tokens.verify(bearerToken(request.getHeader("Authorization"))).orElse(null);
+        if (token != null && token.roomId().equals(roomId)) {
+            return token;
+        }
+        if (!sessionFallback) {
+            return null;
+        }
+        HttpSession session = request.getSession(false); // Never create one just to look
+        return session != null ? fromSession(session.getAttribute(roomId), roomId) : null;
+    }
+
+    /**
+     * Same as {@link #authenticate(HttpServletRequest, String)} for a WebSocket:
+     * the token was verified at handshake time and the HTTP session attributes
+     * copied into {@code sessionAttributes}.
+     */
+    public PlayerToken authenticate(PlayerToken token, Map<String, Object> sessionAttributes, String roomId) {
+        if (token != null && token.roomId().equals(roomId)) {
+            return token;
+        }
+        return sessionFallback ? fromSession(sessionAttributes.get(roomId), roomId) : null;
+    }
+
+    /** Token to hand to a player that just joined a room. */
+    public String issue(Player player) {
+        return tokens.issue(player);
+    }
+
+    public boolean isSessionFallback() {
+        return sessionFallback;
+    }
+
+    public PlayerToken verify(String token) {
+        return tokens.verify(token).orElse(null);
+    }
+
+    public static String bearerToken(String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return null;
+        }
+        return authorization.substring(BEARER.length()).trim();
+    }
+
+    private static PlayerToken fromSession(Object attribute, String roomId) {
+        if (!(attribute instanceof Player player)) {
+            return null;
+        }
+        return new PlayerToken(player.playerId().toString(), roomId, player.isHost(), Long.MAX_VALUE);
+    }
+}
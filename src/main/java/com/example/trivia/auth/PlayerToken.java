@@ -0,0 +1,9 @@
+package com.example.trivia.auth;
+
+/**
+ * What a signed player token asserts: this client joined {@code roomId} as
+ * {@code playerId}, as host or not, and the claim is valid until {@code expiresAt}
+ * (epoch seconds).
+ */
+public record PlayerToken(String playerId, String roomId, boolean host, long expiresAt) {
+}
@@ -0,0 +1,103 @@
+package com.example.trivia.auth;
+
+import com.example.trivia.model.Player;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Issues and verifies player tokens: {@code base64url(claims).base64url(HMAC-SHA256(claims))}
+ * with claims {@code playerId:roomId:host:expiresAt}.
+ *
+ * Verification only recomputes the MAC and compares it in constant time, with
+ * no database or session access, so any node sharing the secret accepts the
+ * token and requests can be balanced round-robin.
+ */
+@Service
+public class PlayerTokenService {
+    private static final Logger log = LoggerFactory.getLogger(PlayerTokenService.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+
+    public PlayerTokenService(
+            @Value("${trivia.auth.token-secret:}") String secret,
+            @Value("${trivia.auth.token-ttl-hours:24}") long ttlHours) {
+        byte[] keyBytes;
+        if (secret.isBlank()) {
+            // Fine for a single node; with several nodes every one must share the secret
+            log.warn("trivia.auth.token-secret is not set: using a random key, tokens are only valid on this node");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttl = Duration.ofHours(ttlHours);
+    }
+
+    public String issue(Player player) {
+        String claims = player.playerId() + ":" + player.roomId() + ":" + (player.isHost() ? 1 : 0)
+                + ":" + Instant.now().plus(ttl).getEpochSecond();
+        byte[] claimBytes = claims.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(claimBytes) + "." + ENCODER.encodeToString(sign(claimBytes));
+    }
+
+    /** The token's claims, or empty if it is malformed, forged or expired. */
+    public Optional<PlayerToken> verify(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int dot = token.indexOf('.');
+        if (dot < 0) {
+            return Optional.empty();
+        }
+
+        byte[] claimBytes;
+        byte[] signature;
+        try {
+            claimBytes = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (!MessageDigest.isEqual(sign(claimBytes), signature)) {
+            return Optional.empty();
+        }
+
+        // Signed by us, so the format is known to be right
+        String[] claims = new String(claimBytes, StandardCharsets.UTF_8).split(":");
+        long expiresAt = Long.parseLong(claims[3]);
+        if (Instant.now().getEpochSecond() >= expiresAt) {
+            return Optional.empty();
+        }
+        return Optional.of(new PlayerToken(claims[0], claims[1], "1".equals(claims[2]), expiresAt));
+    }
+
+    private byte[] sign(byte[] claims) {
+        try {
+            // Mac is not thread-safe; a new instance per call is cheaper than pooling it
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(claims);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.trivia.cache;
+
+import com.example.trivia.ids.Ids;
+import com.example.trivia.model.Game;
+import com.example.trivia.model.Question;
+import com.example.trivia.model.Round;
+import com.example.trivia.repository.GameRepository;
+import com.example.trivia.repository.QuestionRepository;
+import com.example.trivia.repository.RoundRepository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Read-through cache for games, rounds and questions. These rows never change
+ * once a game is created, so entries only leave the cache on deleteGame, on
+ * TTL expiry or when the size limit is reached.
+ *
+ * Cached objects are shared between requests: callers must not modify them.
+ *
+ * Loads run outside Caffeine's compute (which holds a monitor) so a JDBC call
+ * never pins a virtual thread to its carrier; two concurrent misses may both
+ * query the database, which is harmless for immutable rows.
+ */
+@Component
+public class GameCache {
+    private final GameRepository gameRepo;
+    private final RoundRepository roundRepo;
+    private final QuestionRepository questionRepo;
+
+    private final Cache<String, Game> games;
+    private final Cache<String, List<Round>> roundsByGame;
+    private final Cache<String, Round> rounds;
+    private final Cache<String, Question> questions;
+    private final Cache<String, Boolean> warmedRounds;
+
+    public GameCache(
+            GameRepository gameRepo,
+            RoundRepository roundRepo,
+            QuestionRepository questionRepo,
+            @Value("${trivia.cache.ttl-minutes:120}") long ttlMinutes,
+            @Value("${trivia.cache.max-games:10000}") long maxGames) {
+        this.gameRepo = gameRepo;
+        this.roundRepo = roundRepo;
+        this.questionRepo = questionRepo;
+
+        Duration ttl = Duration.ofMinutes(ttlMinutes);
+        this.games = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxGames).build();
+        this.roundsByGame = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxGames).build();
+        // ~10 rounds per game and ~5 questions per round with the default settings
+        this.rounds = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxGames * 10).build();
+        this.questions = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxGames * 50).build();
+        this.warmedRounds = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxGames * 10).build();
+    }
+
+    /** Populates the cache right after a game and its rounds have been created. */
+    public void putGame(Game game, List<Round> gameRounds) {
+        String gameId = game.gameId().toString();
+        games.put(gameId, game);
+        roundsByGame.put(gameId, List.copyOf(gameRounds));
+        for (Round round : gameRounds) {
+            rounds.put(round.roundId().toString(), round);
+        }
+    }
+
+    /**
+     * Loads the questions of a round in one query, once per round, so that the
+     * answers submitted during the round never hit the database for validation.
+     */
+    public void warmRound(String roundId) {
+        if (warmedRounds.getIfPresent(roundId) != null) {
+            return;
+        }
+        for (Question question : questions(roundId)) {
+            questions.put(question.questionId().toString(), question);
+        }
+        warmedRounds.put(roundId, Boolean.TRUE);
+    }
+
+    public Optional<Game> game(String gameId) {
+        return load(games, gameId, id -> Ids.parse(id).flatMap(gameRepo::findById));
+    }
+
+    public List<Round> rounds(String gameId) {
+        List<Round> gameRounds = roundsByGame.getIfPresent(gameId);
+        if (gameRounds == null) {
+            gameRounds = List.copyOf(roundsOf(gameId));
+            for (Round round : gameRounds) {
+                rounds.put(round.roundId().toString(), round);
+            }
+            roundsByGame.put(gameId, gameRounds);
+        }
+        return gameRounds;
+    }
+
+    public Optional<Round> round(String roundId) {
+        return load(rounds, roundId, id -> Ids.parse(id).flatMap(roundRepo::findById));
+    }
+
+    public Optional<Question> question(String questionId) {
+        return load(questions, questionId, id -> Ids.parse(id).flatMap(questionRepo::findById));
+    }
+
+    public void evictGame(String gameId) {
+        List<Round> gameRounds = roundsByGame.getIfPresent(gameId);
+        if (gameRounds == null) {
+            gameRounds = roundsOf(gameId);
+        }
+        for (Round round : gameRounds) {
+            String roundId = round.roundId().toString();
+            rounds.invalidate(roundId);
+            warmedRounds.invalidate(roundId);
+            for (Question question : questionRepo.findByRoundId(round.roundId())) {
+                questions.invalidate(question.questionId().toString());
+            }
+        }
+        roundsByGame.invalidate(gameId);
+        games.invalidate(gameId);
+    }
+
+    private List<Round> roundsOf(String gameId) {
+        return Ids.parse(gameId).map(roundRepo::findByGameId).orElse(List.of());
+    }
+
+    private List<Question> questions(String roundId) {
+        return Ids.parse(roundId).map(questionRepo::findByRoundId).orElse(List.of());
+    }
+
+    private static <T> Optional<T> load(Cache<String, T> cache, String id, Function<String, Optional<T>> loader) {
+        T value = cache.getIfPresent(id);
+        if (value != null) {
+            return Optional.of(value);
+        }
+        Optional<T> loaded = loader.apply(id);
+        loaded.ifPresent(v -> cache.put(id, v));
+        return loaded;
+    }
+}
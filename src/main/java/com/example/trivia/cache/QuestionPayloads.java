@@ -0,0 +1,124 @@
+package com.example.trivia.cache;
+
+import com.example.trivia.config.BackgroundThreads;
+import com.example.trivia.model.Question;
+import com.example.trivia.repository.QuestionRepository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The questions of a round as getRoundQuestions returns them (correct answers
+ * removed), rendered once per round to JSON (optionally gzipped) and to CBOR,
+ * so that the burst of requests at the start of a round only copies bytes.
+ *
+ * Concurrent misses share one load, which runs on its own executor outside
+ * Caffeine's compute. Entries are dropped when the game ends or is deleted;
+ * nodes that do not time the game let them expire.
+ */
+@Component
+public class QuestionPayloads {
+    /** The JSON body, the same body gzipped (null if gzip is disabled) and as CBOR. */
+    public record Payload(byte[] json, byte[] gzip, byte[] cbor) {
+    }
+
+    private final QuestionRepository questionRepo;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final boolean gzip;
+    private final ExecutorService loader;
+    private final AsyncCache<String, Payload> payloads;
+
+    public QuestionPayloads(
+            QuestionRepository questionRepo,
+            ObjectMapper objectMapper,
+            MappingJackson2CborHttpMessageConverter cborConverter,
+            BackgroundThreads backgroundThreads,
+            @Value("${trivia.questions.gzip-payloads:true}") boolean gzip,
+            @Value("${trivia.cache.ttl-minutes:120}") long ttlMinutes,
+            @Value("${trivia.cache.max-games:10000}") long maxGames) {
+        this.questionRepo = questionRepo;
+        this.objectMapper = objectMapper;
+        this.cborMapper = cborConverter.getObjectMapper();
+        this.gzip = gzip;
+        this.loader = backgroundThreads.executor("question-payloads", 4);
+        this.payloads = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .maximumSize(maxGames * 10)
+                .executor(loader)
+                .buildAsync();
+    }
+
+    /** The rendered questions of a round that has already started. */
+    public Payload payload(String roundId) {
+        try {
+            return payloads.get(roundId, (id, executor) -> CompletableFuture.supplyAsync(() -> render(id), executor))
+                    .join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /** False if payloads carry no gzipped body ({@code trivia.questions.gzip-payloads}). */
+    public boolean gzipEnabled() {
+        return gzip;
+    }
+
+    public void evictRounds(Collection<String> roundIds) {
+        payloads.synchronous().invalidateAll(roundIds);
+    }
+
+    private Payload render(String roundId) {
+        // MUST NOT show the correct answers here!
+        List<Question> questions = questionRepo.findByRoundId(UUID.fromString(roundId)).stream()
+                .map(q -> new Question(q.questionId(), q.roundId(), q.type(), q.text(), q.mediaUrl(), null))
+                .toList();
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(questions);
+            return new Payload(json, gzip ? gzip(json) : null, cborMapper.writeValueAsBytes(questions));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not render the questions of round " + roundId, e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Not thrown by in-memory streams
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        loader.shutdown();
+        loader.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.trivia.cache;
+
+import com.example.trivia.cluster.ClusterEvents;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters per room and per game, used as ETags so that the endpoints
+ * polled from the lobby can answer {@code If-None-Match} with 304 before
+ * touching the database.
+ *
+ * A room's version changes when a player joins, its settings change or one of
+ * its games is created or deleted; a game's version when it is created or
+ * deleted. Joins and settings changes arrive through {@link ClusterEvents}, so
+ * every node sees them.
+ *
+ * Versions come from one process-wide sequence and tags carry a random
+ * per-process epoch: a counter dropped from the cache, or a restart, never
+ * gives an old tag to different content. An unknown room or game has no tag
+ * until a full request sets one, which is then read <em>before</em> the data,
+ * so a tag never labels data older than itself.
+ */
+@Component
+public class ResourceVersions {
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Cache<String, Long> rooms;
+    private final Cache<String, Long> games;
+
+    public ResourceVersions(
+            ClusterEvents clusterEvents,
+            @Value("${trivia.cache.ttl-minutes:120}") long ttlMinutes,
+            @Value("${trivia.cache.max-games:10000}") long maxGames) {
+        Duration ttl = Duration.ofMinutes(ttlMinutes);
+        this.rooms = Caffeine.newBuilder().expireAfterAccess(ttl).maximumSize(maxGames).build();
+        this.games = Caffeine.newBuilder().expireAfterAccess(ttl).maximumSize(maxGames).build();
+
+        clusterEvents.subscribe("player_joined", event -> roomChanged(event.roomId()));
+        clusterEvents.subscribe("settings_changed", event -> roomChanged(event.roomId()));
+    }
+
+    public void roomChanged(String roomId) {
+        rooms.put(roomId, sequence.incrementAndGet());
+    }
+
+    public void gameCreated(String roomId, String gameId) {
+        roomChanged(roomId);
+        games.put(gameId, sequence.incrementAndGet());
+    }
+
+    public void gameDeleted(String roomId, String gameId) {
+        roomChanged(roomId);
+        games.invalidate(gameId);
+    }
+
+    /** Current tag of the room, or null if this node has none yet. */
+    public String roomTag(String roomId) {
+        return tag(rooms.getIfPresent(roomId));
+    }
+
+    /** Current tag of the room, starting one if needed. Call before reading the data it labels. */
+    public String startRoomTag(String roomId) {
+        return tag(rooms.asMap().computeIfAbsent(roomId, id -> sequence.incrementAndGet()));
+    }
+
+    public String gameTag(String gameId) {
+        return tag(games.getIfPresent(gameId));
+    }
+
+    public String startGameTag(String gameId) {
+        return tag(games.asMap().computeIfAbsent(gameId, id -> sequence.incrementAndGet()));
+    }
+
+    /** True if {@code ifNoneMatch} (the request header, may be null) lists {@code etag}. */
+    public static boolean notModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.strip();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2); // Weak comparison, as for GET
+            }
+            if (tag.equals(etag) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The tag of one representation of the resource (e.g. "gz" for a gzipped
+     * body): {@code "epoch-7"} becomes {@code "epoch-7-gz"}. Null tag or
+     * variant give the tag unchanged.
+     */
+    public static String variant(String etag, String variant) {
+        if (etag == null || variant == null) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + variant + "\"";
+    }
+
+    private String tag(Long version) {
+        return version == null ? null : "\"" + epoch + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.trivia.cluster;
+
+import com.example.trivia.config.BackgroundThreads;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Room events shared by all nodes through Postgres {@code LISTEN/NOTIFY} on
+ * channel {@value #CHANNEL}.
+ *
+ * {@link #publish} runs the local subscribers right away and notifies the
+ * other nodes, whose listener thread runs theirs; a node ignores its own
+ * notifications, so every subscriber sees each event exactly once. Inside a
+ * transaction the notification goes out on commit. Payloads must stay well
+ * under Postgres' 8000-byte limit: send ids, not rows.
+ */
+@Service
+public class ClusterEvents {
+    private static final Logger log = LoggerFactory.getLogger(ClusterEvents.class);
+    public static final String CHANNEL = "trivia_events";
+    private static final int POLL_TIMEOUT_MS = 5_000;
+    private static final long RECONNECT_DELAY_MS = 2_000;
+
+    public record Event(String node, String type, String roomId, Map<String, Object> data) {}
+
+    private final RoomRing ring;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectMapper objectMapper;
+    private final BackgroundThreads backgroundThreads;
+    private final Map<String, List<Consumer<Event>>> subscribers = new ConcurrentHashMap<>();
+    private volatile Thread listener;
+
+    public ClusterEvents(
+            RoomRing ring,
+            JdbcTemplate jdbcTemplate,
+            DataSourceProperties dataSourceProperties,
+            ObjectMapper objectMapper,
+            BackgroundThreads backgroundThreads) {
+        this.ring = ring;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.objectMapper = objectMapper;
+        this.backgroundThreads = backgroundThreads;
+    }
+
+    public void subscribe(String type, Consumer<Event> subscriber) {
+        subscribers.computeIfAbsent(type, t -> new CopyOnWriteArrayList<>()).add(subscriber);
+    }
+
+    public void publish(String type, String roomId, Map<String, Object> data) {
+        Event event = new Event(ring.localNode().id(), type, roomId, data);
+        dispatch(event);
+        if (!ring.isClustered()) {
+            return;
+        }
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", (RowCallbackHandler) rs -> {}, CHANNEL, payload);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize {} event for room {}", type, roomId, e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (ring.isClustered()) {
+            listener = backgroundThreads.factory("cluster-listener").newThread(this::listen);
+            listener.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = listener;
+        listener = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Holds its own connection outside the pool: a LISTEN connection is never
+     * returned, and must not count against the request threads' pool.
+     */
+    private void listen() {
+        while (listener != null) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Node {} listening for cluster events", ring.localNode().id());
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (listener != null) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (listener == null) {
+                    return;
+                }
+                // Events sent while reconnecting are lost; subscribers only keep caches and sockets in sync
+                log.warn("Cluster event listener lost its connection, reconnecting: {}", e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        try {
+            Event event = objectMapper.readValue(payload, Event.class);
+            if (!event.node().equals(ring.localNode().id())) {
+                dispatch(event);
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed cluster event: {}", e.getMessage());
+        }
+    }
+
+    private void dispatch(Event event) {
+        for (Consumer<Event> subscriber : subscribers.getOrDefault(event.type(), List.of())) {
+            try {
+                subscriber.accept(event);
+            } catch (RuntimeException e) {
+                log.error("Subscriber of {} events failed", event.type(), e);
+            }
+        }
+    }
+}
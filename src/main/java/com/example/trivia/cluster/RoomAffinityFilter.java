@@ -0,0 +1,91 @@
+package com.example.trivia.cluster;
+
+import com.example.trivia.archive.GameArchive;
+import com.example.trivia.cache.GameCache;
+import com.example.trivia.model.Game;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Optional;
+
+/**
+ * Redirects requests for a room owned by another node to that node, with a
+ * 307 so the method and body are kept. Room is taken from {@code /rooms/{roomId}/...}
+ * or, for {@code /games/{gameId}/...}, from the game's room. Creating a game
+ * names its room in the body, so GameController checks that one itself.
+ * Archived games are no longer in any room's state: they go to the node whose
+ * disk holds them.
+ *
+ * WebSocket clients do not follow redirects: they should open the game socket
+ * on the node in the {@value #OWNER_HEADER} header.
+ */
+@Component
+public class RoomAffinityFilter extends OncePerRequestFilter {
+    public static final String OWNER_HEADER = "X-Room-Owner";
+
+    private final RoomRing ring;
+    private final GameCache gameCache;
+    private final GameArchive gameArchive;
+
+    public RoomAffinityFilter(RoomRing ring, GameCache gameCache, GameArchive gameArchive) {
+        this.ring = ring;
+        this.gameCache = gameCache;
+        this.gameArchive = gameArchive;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !ring.isClustered();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RoomRing.Node owner = owner(request.getRequestURI());
+        if (owner != null && !owner.equals(ring.localNode())) {
+            response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            response.setHeader(HttpHeaders.LOCATION, redirectUri(owner, request).toString());
+            response.setHeader(OWNER_HEADER, owner.baseUrl());
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    /** Same path and query on the owner node. */
+    public static URI redirectUri(RoomRing.Node owner, HttpServletRequest request) {
+        String query = request.getQueryString();
+        return URI.create(owner.baseUrl() + request.getRequestURI() + (query != null ? "?" + query : ""));
+    }
+
+    /** Node that serves the path, or null if any node can. */
+    private RoomRing.Node owner(String path) {
+        String[] segments = path.split("/");
+        // "", "rooms"|"games", id, ...
+        if (segments.length < 3) {
+            return null;
+        }
+        return switch (segments[1]) {
+            case "rooms" -> ring.owner(segments[2]);
+            case "games" -> gameOwner(segments[2]);
+            default -> null;
+        };
+    }
+
+    private RoomRing.Node gameOwner(String gameId) {
+        Optional<Game> game = gameCache.game(gameId);
+        if (game.isPresent()) {
+            return ring.owner(game.get().roomId().toString());
+        }
+        return gameArchive.nodeOf(gameId).flatMap(ring::node).orElse(null);
+    }
+}
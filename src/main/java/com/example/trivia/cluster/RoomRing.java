@@ -0,0 +1,105 @@
+package com.example.trivia.cluster;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring that assigns every room to one node of the cluster.
+ * The owner keeps the room's in-memory state (game cache, leaderboard, round
+ * timers, WebSocket sessions); other nodes send the room's requests there.
+ *
+ * Membership is static: {@code trivia.cluster.nodes=id1=http://host1:8080,id2=...}
+ * must be the same on every node. With no nodes configured the app runs as a
+ * single node that owns every room. Each node is placed on the ring
+ * {@value #VIRTUAL_NODES} times so adding or removing one only moves about
+ * 1/N of the rooms.
+ */
+@Component
+public class RoomRing {
+    private static final int VIRTUAL_NODES = 160;
+
+    public record Node(String id, String baseUrl) {}
+
+    private final Node local;
+    private final Map<String, Node> members;
+    private final NavigableMap<Long, Node> ring = new TreeMap<>();
+
+    public RoomRing(
+            @Value("${trivia.cluster.node-id:local}") String nodeId,
+            @Value("${trivia.cluster.nodes:}") String nodes) {
+        this.members = parse(nodes);
+        if (members.isEmpty()) {
+            this.local = new Node(nodeId, "");
+            return;
+        }
+        if (!members.containsKey(nodeId)) {
+            throw new IllegalStateException("trivia.cluster.node-id " + nodeId + " is not in trivia.cluster.nodes");
+        }
+        this.local = members.get(nodeId);
+        for (Node node : members.values()) {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(hash(node.id() + "#" + i), node);
+            }
+        }
+    }
+
+    public boolean isClustered() {
+        return !ring.isEmpty();
+    }
+
+    public Node localNode() {
+        return local;
+    }
+
+    public Node owner(String roomId) {
+        if (ring.isEmpty()) {
+            return local;
+        }
+        Map.Entry<Long, Node> entry = ring.ceilingEntry(hash(roomId));
+        return (entry != null ? entry : ring.firstEntry()).getValue();
+    }
+
+    public boolean isLocal(String roomId) {
+        return owner(roomId).equals(local);
+    }
+
+    /** The member with that id, e.g. the node that archived a game. */
+    public Optional<Node> node(String nodeId) {
+        return nodeId.equals(local.id()) ? Optional.of(local) : Optional.ofNullable(members.get(nodeId));
+    }
+
+    private static Map<String, Node> parse(String nodes) {
+        Map<String, Node> members = new TreeMap<>();
+        for (String member : nodes.split(",")) {
+            if (member.isBlank()) {
+                continue;
+            }
+            int eq = member.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected id=url in trivia.cluster.nodes, got " + member);
+            }
+            String id = member.substring(0, eq).trim();
+            String baseUrl = member.substring(eq + 1).trim();
+            members.put(id, new Node(id, baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl));
+        }
+        return members;
+    }
+
+    /** 64-bit FNV-1a with a splitmix64 finalizer: cheap per request and well spread over the ring. */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.trivia.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factory for the application's own background jobs (answer flusher,
+ * round events, ...). Follows {@code spring.threads.virtual.enabled}, the same
+ * switch that moves Tomcat request handling onto virtual threads.
+ */
+@Component
+public class BackgroundThreads {
+    private final boolean virtual;
+
+    public BackgroundThreads(@Value("${spring.threads.virtual.enabled:false}") boolean virtual) {
+        this.virtual = virtual;
+    }
+
+    public ThreadFactory factory(String name) {
+        if (virtual) {
+            return Thread.ofVirtual().name(name + "-", 0).factory();
+        }
+        return Thread.ofPlatform().name(name + "-", 0).daemon(true).factory();
+    }
+
+    /**
+     * Executor for short jobs that may arrive in bursts: a virtual thread per
+     * job, or a fixed pool of {@code platformThreads} without virtual threads.
+     */
+    public ExecutorService executor(String name, int platformThreads) {
+        if (virtual) {
+            return Executors.newThreadPerTaskExecutor(factory(name));
+        }
+        return Executors.newFixedThreadPool(platformThreads, factory(name));
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+}
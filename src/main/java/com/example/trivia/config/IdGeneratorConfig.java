@@ -0,0 +1,26 @@
+package com.example.trivia.config;
+
+import com.example.trivia.ids.IdGenerator;
+import com.example.trivia.ids.UuidV7Generator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.UUID;
+
+/**
+ * Picks the {@link IdGenerator} with {@code trivia.ids.version}: 7 for
+ * time-ordered ids (default), 4 for random ones as before.
+ */
+@Configuration
+public class IdGeneratorConfig {
+    @Bean
+    public IdGenerator idGenerator(@Value("${trivia.ids.version:7}") int version) {
+        return switch (version) {
+            case 4 -> UUID::randomUUID;
+            case 7 -> new UuidV7Generator();
+            default -> throw new IllegalArgumentException("trivia.ids.version must be 4 or 7, not " + version);
+        };
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.trivia.controller;
+
+/** Body of submitAnswer: the text reply, or the text of the chosen option. */
+public record AnswerSubmission(String answer) {}
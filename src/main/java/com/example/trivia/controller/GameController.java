@@ -1,15 +1,40 @@
 package com.example.trivia.controller;
 
+import com.example.trivia.archive.ArchivedGame;
+import com.example.trivia.archive.GameArchive;
+import com.example.trivia.auth.PlayerAuthenticator;
+import com.example.trivia.auth.PlayerToken;
+import com.example.trivia.cache.GameCache;
+import com.example.trivia.cache.QuestionPayloads;
+import com.example.trivia.cache.ResourceVersions;
+import com.example.trivia.cluster.RoomAffinityFilter;
+import com.example.trivia.cluster.RoomRing;
+import com.example.trivia.ids.IdGenerator;
+import com.example.trivia.ids.Ids;
+import com.example.trivia.leaderboard.LeaderboardService;
 import com.example.trivia.model.*;
+import com.example.trivia.push.GamePushService;
 import com.example.trivia.repository.*;
-
-import jakarta.servlet.http.HttpSession;
-
+import com.example.trivia.rounds.RoundScheduler;
+import com.example.trivia.scoring.RoundResults;
+import com.example.trivia.scoring.RoundResultsService;
+import com.example.trivia.service.AnswerIngestionService;
+import com.example.trivia.service.AnswerService;
+import com.example.trivia.service.GameProvisioningService;
+import com.example.trivia.settings.RoomSettingsService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
+import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
@@ -17,78 +42,122 @@ import java.util.*;
 @RestController
 public class GameController {
     private final GameRepository gameRepo;
-    private final RoomRepository roomRepo;
     private final RoundRepository roundRepo;
-    private final QuestionRepository questionRepo;
     private final PlayerRepository playerRepo;
     private final AnswerRepository answerRepo;
-    private final SettingsRepository settingsRepo;
+    private final RoomSettingsService roomSettings;
+    private final AnswerIngestionService answerIngestion;
+    private final GameCache gameCache;
+    private final AnswerService answerService;
+    private final GamePushService gamePush;
+    private final GameProvisioningService gameProvisioning;
+    private final LeaderboardService leaderboard;
+    private final PlayerAuthenticator playerAuth;
+    private final RoomRing roomRing;
+    private final RoundScheduler roundScheduler;
+    private final RoundResultsService roundResults;
+    private final ResourceVersions versions;
+    private final QuestionPayloads questionPayloads;
+    private final IdGenerator ids;
+    private final GameArchive archive;
 
     public GameController(
             GameRepository gameRepo,
-            RoomRepository roomRepo,
             RoundRepository roundRepo,
-            QuestionRepository questionRepo,
             PlayerRepository playerRepo,
             AnswerRepository answerRepo,
-            SettingsRepository settingsRepo,
-            TeamRepository teamRepo) {
+            RoomSettingsService roomSettings,
+            TeamRepository teamRepo,
+            AnswerIngestionService answerIngestion,
+            GameCache gameCache,
+            AnswerService answerService,
+            GamePushService gamePush,
+            GameProvisioningService gameProvisioning,
+            LeaderboardService leaderboard,
+            PlayerAuthenticator playerAuth,
+            RoomRing roomRing,
+            RoundScheduler roundScheduler,
+            RoundResultsService roundResults,
+            ResourceVersions versions,
+            QuestionPayloads questionPayloads,
+            IdGenerator ids,
+            GameArchive archive) {
         this.gameRepo = gameRepo;
-        this.roomRepo = roomRepo;
         this.roundRepo = roundRepo;
-        this.questionRepo = questionRepo;
         this.playerRepo = playerRepo;
         this.answerRepo = answerRepo;
-        this.settingsRepo = settingsRepo;
+        this.roomSettings = roomSettings;
+        this.answerIngestion = answerIngestion;
+        this.gameCache = gameCache;
+        this.answerService = answerService;
+        this.gamePush = gamePush;
+        this.gameProvisioning = gameProvisioning;
+        this.leaderboard = leaderboard;
+        this.playerAuth = playerAuth;
+        this.roomRing = roomRing;
+        this.roundScheduler = roundScheduler;
+        this.roundResults = roundResults;
+        this.versions = versions;
+        this.questionPayloads = questionPayloads;
+        this.ids = ids;
+        this.archive = archive;
     }
 
     @PostMapping("/games")
-    public ResponseEntity<Game> createGame(@RequestBody Map<String, Object> body,
-            HttpSession session) {
-        String roomId = (String) body.get("roomId");
-        Optional<Room> roomOptional = roomRepo.findById(roomId);
-        if (roomOptional.isEmpty()) {
+    public ResponseEntity<Game> createGame(@RequestBody NewGame body,
+            HttpServletRequest request) {
+        String roomId = body.roomId();
+        if (roomId != null && !roomRing.isLocal(roomId)) {
+            // The game's timers and caches must live on the room's node; see RoomAffinityFilter
+            RoomRing.Node owner = roomRing.owner(roomId);
+            return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                    .location(RoomAffinityFilter.redirectUri(owner, request))
+                    .header(RoomAffinityFilter.OWNER_HEADER, owner.baseUrl())
+                    .build();
+        }
+        // Cached snapshot of the room's current settings; empty if there is no such room
+        Optional<Settings> settingsOptional = roomSettings.current(roomId);
+        if (settingsOptional.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
-        Player player = (Player) session.getAttribute(roomId);
-        if (player == null || !player.isHost()) {
+        PlayerToken player = playerAuth.authenticate(request, roomId);
+        if (player == null || !player.host()) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        Room room = roomOptional.get();
-        Optional<Settings> settingsOptional = settingsRepo.findById(room.getSettingsId());
         Settings settings = settingsOptional.get();
 
-        Game game = new Game();
-        game.setGameId(UUID.randomUUID().toString());
-        game.setRoomId(roomId);
-        game.setCreatedAt(Instant.now());
-        game.setEndedAt(Instant.now().plus(
-                Duration.ofSeconds(settings.getRounds() * settings.getTimePerRound())));
-        game.setSettingsId(room.getSettingsId()); // Game uses Room's settings
-        gameRepo.save(game);
+        Instant now = Instant.now();
+        Duration timePerRound = Duration.ofSeconds(settings.timePerRound());
+        // roomSettings found the room, so roomId is a valid UUID
+        Game game = new Game(ids.next(), UUID.fromString(roomId), Timestamp.from(now),
+                Timestamp.from(now.plus(timePerRound.multipliedBy(settings.rounds()))),
+                settings.settingsId()); // Pinned: later changes to the room's settings do not apply
 
         // Create rounds for the game, based on the game's settings
-        for (int roundNumber = 1; roundNumber <= settings.getRounds(); roundNumber++) {
-            Round round = new Round();
-            round.setRoundId(UUID.randomUUID().toString());
-            round.setGameId(game.getGameId());
-            round.setRoundNumber(roundNumber);
-            round.setCreatedAt(Instant.now().plus(
-                    Duration.ofSeconds(settings.getTimePerRound() * (roundNumber - 1))));
-            round.setEndedAt(round.getCreatedAt().plus(
-                    Duration.ofSeconds(settings.getTimePerRound())));
-            roundRepo.save(round);
-        }
-
-        URI location = URI.create("/games/" + game.getGameId());
+        List<Round> rounds = new ArrayList<>();
+        for (int roundNumber = 1; roundNumber <= settings.rounds(); roundNumber++) {
+            Instant startsAt = now.plus(timePerRound.multipliedBy(roundNumber - 1));
+            rounds.add(new Round(ids.next(), game.gameId(), roundNumber, Timestamp.from(startsAt),
+                    Timestamp.from(startsAt.plus(timePerRound))));
+        }
+
+        // Game, rounds and questions are inserted together in one transaction
+        gameProvisioning.provision(game, rounds, settings);
+        gameCache.putGame(game, rounds);
+        String gameId = game.gameId().toString();
+        roundScheduler.schedule(gameId, roomId, rounds);
+        versions.gameCreated(roomId, gameId);
+
+        URI location = URI.create("/games/" + gameId);
         return ResponseEntity.created(location).body(game);
     }
 
+    /** Falls back to the archive for games that have been moved out of the database. */
     @GetMapping("/games/{gameId}")
     public ResponseEntity<Game> getGame(@PathVariable String gameId) {
-        Optional<Game> gameOptional = gameRepo.findById(gameId);
+        Optional<Game> gameOptional = gameCache.game(gameId).or(() -> archive.find(gameId).map(ArchivedGame::toGame));
         if (gameOptional.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
@@ -97,56 +166,131 @@ public class GameController {
         return ResponseEntity.ok(game);
     }
 
+    /** The settings snapshot the game was created with. */
+    @GetMapping("/games/{gameId}/settings")
+    public ResponseEntity<Settings> getGameSettings(@PathVariable String gameId) {
+        return gameCache.game(gameId)
+                .flatMap(game -> roomSettings.snapshot(game.settingsId()))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @DeleteMapping("/games/{gameId}")
-    public ResponseEntity<Void> deleteGame(@PathVariable String gameId, HttpSession session) {
-        Optional<Game> gameOptional = gameRepo.findById(gameId);
+    public ResponseEntity<Void> deleteGame(@PathVariable String gameId, HttpServletRequest request) {
+        Optional<Game> gameOptional = gameCache.game(gameId);
         if (gameOptional.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
         Game game = gameOptional.get();
-        Player player = (Player) session.getAttribute(game.getRoomId());
-        if (player == null || !player.isHost()) {
+        String roomId = game.roomId().toString();
+        PlayerToken player = playerAuth.authenticate(request, roomId);
+        if (player == null || !player.host()) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        gameRepo.deleteById(gameId);
+        roundScheduler.cancel(gameId);
+        gamePush.cancelGame(gameId);
+        leaderboard.evictGame(gameId);
+        List<String> roundIds = gameCache.rounds(gameId).stream().map(round -> round.roundId().toString()).toList();
+        roundResults.evictRounds(roundIds);
+        questionPayloads.evictRounds(roundIds);
+        gameCache.evictGame(gameId); // Before the delete: it cascades to rounds and questions
+        gameRepo.deleteById(game.gameId());
+        versions.gameDeleted(roomId, gameId);
         return ResponseEntity.noContent().build();
     }
 
-    @GetMapping("/games/{gameId}/rounds")
-    public ResponseEntity<List<Round>> getRounds(@PathVariable String gameId) {
-        Optional<Game> gameOptional = gameRepo.findById(gameId);
+    @GetMapping("/games/{gameId}/leaderboard")
+    public ResponseEntity<List<LeaderboardService.Standing>> getLeaderboard(@PathVariable String gameId,
+            @RequestParam(required = false) String roundId,
+            @RequestParam(defaultValue = "10") int limit) {
+        Optional<Game> gameOptional = gameCache.game(gameId);
         if (gameOptional.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (roundId == null) {
+            return ResponseEntity.ok(leaderboard.top(gameId, limit));
+        }
+        Optional<Round> roundOptional = gameCache.round(roundId);
+        if (roundOptional.isEmpty() || !roundOptional.get().gameId().toString().equals(gameId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(leaderboard.topOfRound(gameId, roundId, limit));
+    }
+
+    /** Answers 304 to a matching If-None-Match: rounds never change while the game exists. */
+    @GetMapping("/games/{gameId}/rounds")
+    public ResponseEntity<List<Round>> getRounds(@PathVariable String gameId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = versions.gameTag(gameId);
+        if (ResourceVersions.notModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        Optional<Game> gameOptional = gameCache.game(gameId);
+        if (gameOptional.isEmpty()) {
+            Optional<ArchivedGame> archived = archive.find(gameId);
+            if (archived.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok().eTag(versions.startGameTag(gameId)).body(archived.get().toRounds());
+        }
 
-        List<Round> rounds = roundRepo.findByGameId(gameId);
-        return ResponseEntity.ok(rounds);
+        etag = versions.startGameTag(gameId);
+        List<Round> rounds = gameCache.rounds(gameId);
+        return ResponseEntity.ok().eTag(etag).body(rounds);
     }
 
+    /**
+     * Same version as getRounds in the ETag; a client only has it once the
+     * round has started. The body is rendered once per round (see
+     * QuestionPayloads): CBOR if the client prefers it, otherwise JSON, gzipped
+     * for clients that accept it. Each of the three gets its own tag, so a 304
+     * never confirms a body in another encoding or media type.
+     */
     @GetMapping("/games/{gameId}/rounds/{roundId}/questions")
-    public ResponseEntity<List<Question>> getRoundQuestions(@PathVariable String gameId,
-            @PathVariable String roundId) {
-        Optional<Game> gameOptional = gameRepo.findById(gameId);
-        Optional<Round> roundOptional = roundRepo.findById(roundId);
+    public ResponseEntity<byte[]> getRoundQuestions(@PathVariable String gameId,
+            @PathVariable String roundId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean cbor = prefersCbor(accept);
+        boolean gzip = !cbor && questionPayloads.gzipEnabled() && acceptsGzip(acceptEncoding);
+        String variant = cbor ? "cbor" : gzip ? "gz" : null;
+        String etag = ResourceVersions.variant(versions.gameTag(gameId), variant);
+        if (ResourceVersions.notModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        Optional<Game> gameOptional = gameCache.game(gameId);
+        Optional<Round> roundOptional = gameCache.round(roundId);
         if (gameOptional.isEmpty() || roundOptional.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
         Round round = roundOptional.get();
-        if (Instant.now().isBefore(round.getCreatedAt())) {
+        if (Instant.now().isBefore(round.startedAt().toInstant())) {
             return ResponseEntity.badRequest().build(); // Round has not started yet
         }
 
-        List<Question> questions = questionRepo.findByRoundId(roundId);
+        etag = ResourceVersions.variant(versions.startGameTag(gameId), variant);
+        gameCache.warmRound(roundId); // No-op once RoundScheduler has warmed it at round start
+        QuestionPayloads.Payload payload = questionPayloads.payload(roundId);
 
-        // MUST NOT show the correct answers here!
-        for (Question question : questions) {
-            question.setCorrectAnswers(null);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (cbor) {
+            return response.contentType(MediaType.APPLICATION_CBOR).body(payload.cbor());
         }
-
-        return ResponseEntity.ok(questions);
+        response.contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.gzip());
+        }
+        return response.body(payload.json());
     }
 
     @PostMapping("/games/{gameId}/rounds/{roundId}/questions/{questionId}/players/{playerId}")
@@ -154,47 +298,52 @@ public class GameController {
             @PathVariable String roundId,
             @PathVariable String questionId,
             @PathVariable String playerId,
-            @RequestBody Map<String, Object> body,
-            HttpSession session) {
-        Optional<Game> gameOptional = gameRepo.findById(gameId);
-        Optional<Player> playerOptional = playerRepo.findById(playerId);
-        Optional<Question> questionOptional = questionRepo.findById(questionId);
-        Optional<Round> roundOptional = roundRepo.findById(roundId);
+            @RequestBody AnswerSubmission body,
+            HttpServletRequest request) {
+        PlayerToken player = gameCache.game(gameId)
+                .map(game -> playerAuth.authenticate(request, game.roomId().toString()))
+                .orElse(null);
+
+        return switch (answerService.submit(gameId, roundId, questionId, playerId,
+                body.answer(), player)) {
+            case ACCEPTED -> ResponseEntity.ok().build();
+            case NOT_FOUND -> ResponseEntity.notFound().build();
+            case ROUND_ENDED -> ResponseEntity.badRequest().build(); // Round has already ended
+            case FORBIDDEN -> ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        };
+    }
+
+    /**
+     * Every answer of a finished round with its correctness, plus points per
+     * team, in one payload. Replaces calling getAnswer for each question.
+     */
+    @GetMapping("/games/{gameId}/rounds/{roundId}/results")
+    public ResponseEntity<RoundResults> getRoundResults(@PathVariable String gameId,
+            @PathVariable String roundId,
+            HttpServletRequest request) {
+        Optional<Game> gameOptional = gameCache.game(gameId);
+        Optional<Round> roundOptional = gameCache.round(roundId);
         if (gameOptional.isEmpty()
-                || playerOptional.isEmpty()
-                || questionOptional.isEmpty()
-                || roundOptional.isEmpty()) {
+                || roundOptional.isEmpty()
+                || !roundOptional.get().gameId().toString().equals(gameId)) {
             return ResponseEntity.notFound().build();
         }
 
         Round round = roundOptional.get();
-        if (Instant.now().isAfter(round.getEndedAt())) {
-            return ResponseEntity.badRequest().build(); // Round has already ended
+        Instant endedAt = round.endedAt().toInstant();
+        if (Instant.now().isBefore(endedAt)) {
+            return ResponseEntity.badRequest().build(); // Round has not ended yet
         }
 
-        Game game = gameOptional.get();
-        Player player = (Player) session.getAttribute(game.getRoomId());
-        if (player == null || !player.getPlayerId().equals(playerId)) {
+        PlayerToken player = playerAuth.authenticate(request, gameOptional.get().roomId().toString());
+        if (player == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        Answer answer = new Answer();
-        answer.setAnswerId(UUID.randomUUID().toString());
-        answer.setQuestionId(questionId);
-        answer.setPlayerId(playerId);
-        answer.setAnswer((String) body.get("answer"));
-
-        // Check whether the submited answer is correct
-        Question question = questionOptional.get();
-        answer.setCorrect(false);
-        for (String correctAnswer : question.getCorrectAnswers()) {
-            if (answer.getAnswer().equalsIgnoreCase(correctAnswer)) {
-                answer.setCorrect(true);
-            }
-        }
-
-        answerRepo.save(answer);
-        return ResponseEntity.ok().build();
+        // Final once the round is over (the load closes the round first): the client may keep it
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofHours(1)).cachePrivate())
+                .body(roundResults.results(gameId, round.roundId().toString(), endedAt));
     }
 
     @GetMapping("/games/{gameId}/rounds/{roundId}/questions/{questionId}/players/{playerId}")
@@ -203,27 +352,34 @@ public class GameController {
             @PathVariable String roundId,
             @PathVariable String questionId,
             @PathVariable String playerId,
-            HttpSession session) {
-        Optional<Game> gameOptional = gameRepo.findById(gameId);
-        Optional<Player> playerOptional = playerRepo.findById(playerId);
-        Optional<Question> questionOptional = questionRepo.findById(questionId);
-        Optional<Round> roundOptional = roundRepo.findById(roundId);
-        Optional<Answer> answerOptional = answerRepo.findByQuestionIdAndPlayerId(questionId, playerId);
+            HttpServletRequest request) {
+        Optional<Game> gameOptional = gameCache.game(gameId);
+        Optional<Question> questionOptional = gameCache.question(questionId);
+        Optional<Round> roundOptional = gameCache.round(roundId);
         if (gameOptional.isEmpty()
-                || playerOptional.isEmpty()
                 || questionOptional.isEmpty()
-                || roundOptional.isEmpty()
-                || answerOptional.isEmpty()) {
+                || roundOptional.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
 
         Round round = roundOptional.get();
-        if (Instant.now().isBefore(round.getEndedAt())) {
+        Instant endedAt = round.endedAt().toInstant();
+        if (Instant.now().isBefore(endedAt)) {
             return ResponseEntity.badRequest().build(); // Round has not ended yet
         }
 
+        // Round is over: every answer that made the deadline must be visible, including
+        // the submits still on their way into the buffer
+        answerIngestion.closeRound(round.roundId().toString(), endedAt).join();
+        // No answer row also covers an unknown player
+        Optional<Answer> answerOptional = Ids.parse(questionId).flatMap(question -> Ids.parse(playerId)
+                .flatMap(player -> answerRepo.findFirstByQuestionIdAndPlayerIdOrderBySubmittedAt(question, player)));
+        if (answerOptional.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
         Game game = gameOptional.get();
-        Player player = (Player) session.getAttribute(game.getRoomId());
+        PlayerToken player = playerAuth.authenticate(request, game.roomId().toString());
         if (player == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
@@ -231,4 +387,44 @@ public class GameController {
         Answer answer = answerOptional.get();
         return ResponseEntity.ok(answer);
     }
+
+    /** True if CBOR comes before JSON in the client's Accept, by quality then order. */
+    private static boolean prefersCbor(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        mediaTypes.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                break;
+            }
+            if (mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                return true;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /** True unless the client does not list gzip, or lists it with q=0. */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.strip().split(";");
+            if (parts[0].strip().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].strip().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
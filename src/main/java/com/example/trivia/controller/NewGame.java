@@ -0,0 +1,4 @@
+package com.example.trivia.controller;
+
+/** Body of createGame. */
+public record NewGame(String roomId) {}
@@ -1,5 +1,11 @@
 package com.example.trivia.controller;
 
+import com.example.trivia.auth.PlayerAuthenticator;
+import com.example.trivia.auth.PlayerToken;
+import com.example.trivia.cache.ResourceVersions;
+import com.example.trivia.cluster.ClusterEvents;
+import com.example.trivia.ids.IdGenerator;
+import com.example.trivia.ids.Ids;
 import com.example.trivia.model.Room;
 import com.example.trivia.model.Settings;
 import com.example.trivia.model.Player;
@@ -8,125 +14,191 @@ import com.example.trivia.repository.RoomRepository;
 import com.example.trivia.repository.PlayerRepository;
 import com.example.trivia.repository.TeamRepository;
 import com.example.trivia.repository.SettingsRepository;
+import com.example.trivia.settings.RoomSettingsService;
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.jdbc.core.JdbcAggregateOperations;
+import org.springframework.data.relational.core.conversion.DbActionExecutionException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
+import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.*;
 
 @RestController
 @RequestMapping("/rooms")
 public class RoomController {
+    private static final Set<String> DIFFICULTIES = Set.of("easy", "medium", "hard");
+
     private final RoomRepository roomRepo;
     private final PlayerRepository playerRepo;
     private final TeamRepository teamRepo;
     private final SettingsRepository settingsRepo;
+    private final JdbcAggregateOperations aggregates;
+    private final RoomSettingsService roomSettings;
+    private final PlayerAuthenticator playerAuth;
+    private final ClusterEvents clusterEvents;
+    private final ResourceVersions versions;
+    private final IdGenerator ids;
 
     public RoomController(
             RoomRepository roomRepo,
             PlayerRepository playerRepo,
             TeamRepository teamRepo,
-            SettingsRepository settingsRepo) {
+            SettingsRepository settingsRepo,
+            JdbcAggregateOperations aggregates,
+            RoomSettingsService roomSettings,
+            PlayerAuthenticator playerAuth,
+            ClusterEvents clusterEvents,
+            ResourceVersions versions,
+            IdGenerator ids) {
         this.roomRepo = roomRepo;
         this.playerRepo = playerRepo;
         this.teamRepo = teamRepo;
         this.settingsRepo = settingsRepo;
+        this.aggregates = aggregates;
+        this.roomSettings = roomSettings;
+        this.playerAuth = playerAuth;
+        this.clusterEvents = clusterEvents;
+        this.versions = versions;
+        this.ids = ids;
     }
 
     /** R01: Crear sala + settings por defecto */
     @PostMapping
     public ResponseEntity<Room> createRoom() {
-        // 1) Creamos primero los settings
-        Settings settings = new Settings();
-        settings.setRounds(10);
-        settings.setTimePerRound(60);
-        settings.setQuestionsPerRound(5);
-        settings.setDifficulty("easy");
-        settings.setMaxPlayersPerTeam(5);
-        settingsRepo.save(settings);
-
-        // 2) Creamos la room apuntando a dichos settings
-        Room room = new Room();
-        room.setRoomId(UUID.randomUUID().toString());
-        room.setCreatedAt(Instant.now());
-        room.setSettingsId(settings.getSettingsId());
-        roomRepo.save(room);
-
-        URI location = URI.create("/rooms/" + room.getRoomId());
+        // 1) Creamos primero los settings (el id lo pone la BD)
+        Settings settings = settingsRepo.save(new Settings(null, 10, 60, 5, "easy", 5, 1));
+
+        // 2) Creamos la room apuntando a dichos settings. El id ya viene puesto, así que
+        //    hay que insertarla (save haría un UPDATE); el slug es el propio id
+        UUID roomId = ids.next();
+        Room room = aggregates.insert(new Room(roomId, roomId.toString(), Timestamp.from(Instant.now()),
+                settings.settingsId()));
+        roomSettings.put(roomId.toString(), settings);
+        versions.roomChanged(roomId.toString());
+
+        URI location = URI.create("/rooms/" + roomId);
         return ResponseEntity.created(location).body(room);
     }
 
     /** R02: Obtener sala */
     @GetMapping("/{roomId}")
     public ResponseEntity<Room> getRoom(@PathVariable String roomId) {
-        return roomRepo.findById(roomId)
+        return Ids.parse(roomId).flatMap(roomRepo::findById)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    /** R02–R03: Unirse a sala */
+    /** R02–R03: Unirse a sala. El token firmado va en la cabecera X-Player-Token */
     @PostMapping("/{roomId}/players")
     public ResponseEntity<Player> joinRoom(
             @PathVariable String roomId,
             @RequestBody Map<String, Object> body,
-            HttpSession session
+            HttpServletRequest request
     ) {
-        Optional<Room> opt = roomRepo.findById(roomId);
+        Optional<Room> opt = Ids.parse(roomId).flatMap(roomRepo::findById);
         if (opt.isEmpty()) return ResponseEntity.notFound().build();
 
-        Player player = new Player();
-        player.setPlayerId(UUID.randomUUID().toString());
-        player.setRoomId(roomId);
-        player.setUsername((String) body.get("username"));
+        UUID roomUuid = opt.get().roomId();
+        String username = (String) body.get("username");
         // primer jugador es host
-        player.setHost(playerRepo.findByRoomId(roomId).isEmpty());
-        playerRepo.save(player);
+        boolean host = playerRepo.findByRoomId(roomUuid).isEmpty();
+        Player player;
+        try {
+            player = aggregates.insert(new Player(ids.next(), roomUuid, username, host, null));
+        } catch (DbActionExecutionException e) {
+            // Otro jugador se ha unido a la vez y ya es el host (índice one_host_per_room)
+            if (!host || !(e.getCause() instanceof DuplicateKeyException)) throw e;
+            player = aggregates.insert(new Player(ids.next(), roomUuid, username, false, null));
+        }
 
-        session.setAttribute(roomId, player);
-        URI location = URI.create("/rooms/" + roomId + "/players/" + player.getPlayerId());
-        return ResponseEntity.created(location).body(player);
+        clusterEvents.publish("player_joined", roomId,
+                Map.of("playerId", player.playerId().toString(), "username", player.username()));
+        if (playerAuth.isSessionFallback()) {
+            request.getSession().setAttribute(roomId, player); // Clientes que aún no usan el token
+        }
+        URI location = URI.create("/rooms/" + roomId + "/players/" + player.playerId());
+        return ResponseEntity.created(location)
+                .header(PlayerAuthenticator.TOKEN_HEADER, playerAuth.issue(player))
+                .body(player);
     }
 
-    /** R02: Listar jugadores */
+    /** R02: Listar jugadores. Con If-None-Match de la versión actual de la sala, 304 sin ir a la BD */
     @GetMapping("/{roomId}/players")
-    public ResponseEntity<List<Player>> getRoomPlayers(@PathVariable String roomId) {
-        if (roomRepo.findById(roomId).isEmpty()) {
+    public ResponseEntity<List<Player>> getRoomPlayers(@PathVariable String roomId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = versions.roomTag(roomId);
+        if (ResourceVersions.notModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        Optional<UUID> roomUuid = Ids.parse(roomId);
+        if (roomUuid.flatMap(roomRepo::findById).isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(playerRepo.findByRoomId(roomId));
+        etag = versions.startRoomTag(roomId); // Antes de leer los jugadores
+        return ResponseEntity.ok().eTag(etag).body(playerRepo.findByRoomId(roomUuid.get()));
     }
 
-    /** R04: Obtener settings */
+    /** R04: Obtener settings (mismo ETag que los jugadores: la versión de la sala) */
     @GetMapping("/{roomId}/settings")
-    public ResponseEntity<Settings> getSettings(@PathVariable String roomId) {
-        return roomRepo.findById(roomId)
-                .flatMap(r -> settingsRepo.findById(r.getSettingsId()))
-                .map(ResponseEntity::ok)
+    public ResponseEntity<Settings> getSettings(@PathVariable String roomId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = versions.roomTag(roomId);
+        if (ResourceVersions.notModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        String currentTag = versions.startRoomTag(roomId);
+        return roomSettings.current(roomId)
+                .map(settings -> ResponseEntity.ok().eTag(currentTag).body(settings))
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    /** R04: Actualizar settings (solo host) */
+    /**
+     * R04: Actualizar settings (solo host). El body debe traer el settingsId leído:
+     * si entretanto otro los ha cambiado, 409 y hay que volver a leerlos
+     */
     @PutMapping("/{roomId}/settings")
     public ResponseEntity<Settings> updateSettings(
             @PathVariable String roomId,
             @RequestBody Settings newSettings,
-            HttpSession session
+            HttpServletRequest request
     ) {
-        Optional<Room> or = roomRepo.findById(roomId);
+        Optional<Room> or = Ids.parse(roomId).flatMap(roomRepo::findById);
         if (or.isEmpty()) return ResponseEntity.notFound().build();
 
-        Player current = (Player) session.getAttribute(roomId);
-        if (current == null || !current.isHost()) {
+        PlayerToken current = playerAuth.authenticate(request, roomId);
+        if (current == null || !current.host()) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
-        // Guardamos cambios
-        settingsRepo.save(newSettings);
-        return ResponseEntity.ok(newSettings);
+        if (newSettings.settingsId() == null || !isValid(newSettings)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Nueva versión de los settings; las partidas en curso siguen con la suya
+        Optional<Settings> updated = roomSettings.update(roomId, newSettings);
+        if (updated.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        Settings settings = updated.get();
+        clusterEvents.publish("settings_changed", roomId, Map.of("settingsId", settings.settingsId().toString()));
+        return ResponseEntity.ok(settings);
+    }
+
+    /** Mismos límites que openapi.yml */
+    private static boolean isValid(Settings settings) {
+        return settings.rounds() >= 1
+                && settings.timePerRound() >= 10
+                && settings.questionsPerRound() >= 1
+                && settings.maxPlayersPerTeam() >= 1
+                && settings.difficulty() != null
+                && DIFFICULTIES.contains(settings.difficulty());
     }
 
     // ... (el resto de endpoints sobre teams, assignaciones, juegos, etc. queda igual)
@@ -0,0 +1,148 @@
+package com.example.trivia.dao;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base of the DAOs: borrows a pooled connection for each call (or joins the
+ * current Spring transaction's one) and returns it when the call is done, so
+ * a single DAO instance can be shared by every request thread.
+ *
+ * Statements are prepared from constant SQL strings on long-lived pooled
+ * connections, which lets the driver's per-connection statement cache reuse
+ * the server-side prepared statement instead of parsing the SQL again
+ * (see the {@code prepareThreshold}/{@code preparedStatementCache*} settings).
+ *
+ * Every statement is timed in {@code trivia.dao.query}, tagged with the DAO
+ * and the SQL verb, including the wait for a pooled connection.
+ */
+abstract class DaoSupport {
+    @FunctionalInterface
+    interface StatementBinder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface BatchBinder<T> {
+        void bind(PreparedStatement stmt, T item) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface StatementCallback<T> {
+        T execute(PreparedStatement stmt) throws SQLException;
+    }
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    // SQL strings are constants, so this holds one timer per statement of the DAO
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    protected DaoSupport(DataSource dataSource, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** INSERT ... RETURNING {@code idColumn}. */
+    protected UUID insertReturningId(String sql, String idColumn, StatementBinder binder) throws SQLException {
+        return execute(sql, stmt -> {
+            binder.bind(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return (UUID) rs.getObject(idColumn);
+                } else {
+                    throw new SQLException("Insert failed, no ID returned.");
+                }
+            }
+        });
+    }
+
+    /** First row mapped, or null when there is none. */
+    protected <T> T queryOne(String sql, StatementBinder binder, RowMapper<T> mapper) throws SQLException {
+        return execute(sql, stmt -> {
+            binder.bind(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapper.mapRow(rs, 0) : null;
+            }
+        });
+    }
+
+    protected <T> List<T> queryList(String sql, StatementBinder binder, RowMapper<T> mapper) throws SQLException {
+        return execute(sql, stmt -> {
+            binder.bind(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                List<T> rows = new ArrayList<>();
+                while (rs.next()) {
+                    rows.add(mapper.mapRow(rs, rows.size()));
+                }
+                return rows;
+            }
+        });
+    }
+
+    /** Number of affected rows. */
+    protected int update(String sql, StatementBinder binder) throws SQLException {
+        return execute(sql, stmt -> {
+            binder.bind(stmt);
+            return stmt.executeUpdate();
+        });
+    }
+
+    protected <T> int[] batch(String sql, List<T> items, BatchBinder<T> binder) throws SQLException {
+        return execute(sql, stmt -> {
+            for (T item : items) {
+                binder.bind(stmt, item);
+                stmt.addBatch();
+            }
+            return stmt.executeBatch();
+        });
+    }
+
+    private <T> T execute(String sql, StatementCallback<T> callback) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            return callback.execute(stmt);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+            timer(sql).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String sql) {
+        Timer timer = timers.get(sql);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(sql, key -> Timer.builder("trivia.dao.query")
+                    .tag("dao", getClass().getSimpleName())
+                    .tag("operation", operation(key))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        return timer;
+    }
+
+    /** First keyword of the statement: select, insert, update, delete... */
+    private static String operation(String sql) {
+        String trimmed = sql.strip();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+}
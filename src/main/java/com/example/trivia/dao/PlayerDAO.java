@@ -1,14 +1,18 @@
 package com.example.trivia.dao;
 
 import com.example.trivia.model.Player;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.UUID;
 
-public class PlayerDAO {
-    private final Connection connection;
+@Component
+public class PlayerDAO extends DaoSupport {
 
-    public PlayerDAO(Connection connection) {
-        this.connection = connection;
+    public PlayerDAO(DataSource dataSource, MeterRegistry meterRegistry) {
+        super(dataSource, meterRegistry);
     }
 
     // CREATE
@@ -18,38 +22,18 @@ public class PlayerDAO {
             VALUES (?, ?, ?, ?)
             RETURNING player_id;
             """;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        return insertReturningId(sql, "player_id", stmt -> {
             stmt.setObject(1, roomId);
             stmt.setString(2, username);
             stmt.setBoolean(3, isHost);
             if (teamId != null) stmt.setObject(4, teamId); else stmt.setNull(4, Types.OTHER);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return (UUID) rs.getObject("player_id");
-            } else {
-                throw new SQLException("Insert failed, no ID returned.");
-            }
-        }
+        });
     }
 
     // READ
     public Player getById(UUID playerId) throws SQLException {
         String sql = "SELECT * FROM players WHERE player_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setObject(1, playerId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new Player(
-                    (UUID) rs.getObject("player_id"),
-                    (UUID) rs.getObject("room_id"),
-                    rs.getString("username"),
-                    rs.getBoolean("is_host"),
-                    (UUID) rs.getObject("team_id")
-                );
-            } else {
-                return null;
-            }
-        }
+        return queryOne(sql, stmt -> stmt.setObject(1, playerId), RowMappers.PLAYER);
     }
 
     // UPDATE
@@ -59,24 +43,20 @@ public class PlayerDAO {
             SET room_id = ?, username = ?, is_host = ?, team_id = ?
             WHERE player_id = ?;
             """;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        int affected = update(sql, stmt -> {
             stmt.setObject(1, player.roomId());
             stmt.setString(2, player.username());
             stmt.setBoolean(3, player.isHost());
             if (player.teamId() != null) stmt.setObject(4, player.teamId()); else stmt.setNull(4, Types.OTHER);
             stmt.setObject(5, player.playerId());
-            int affected = stmt.executeUpdate();
-            return affected > 0;
-        }
+        });
+        return affected > 0;
     }
 
     // DELETE
     public boolean delete(UUID playerId) throws SQLException {
         String sql = "DELETE FROM players WHERE player_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setObject(1, playerId);
-            int affected = stmt.executeUpdate();
-            return affected > 0;
-        }
+        int affected = update(sql, stmt -> stmt.setObject(1, playerId));
+        return affected > 0;
     }
-}
\ No newline at end of file
+}
@@ -1,14 +1,18 @@
 package com.example.trivia.dao;
 
 import com.example.trivia.model.Question;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.UUID;
 
-public class QuestionDAO {
-    private final Connection connection;
+@Component
+public class QuestionDAO extends DaoSupport {
 
-    public QuestionDAO(Connection connection) {
-        this.connection = connection;
+    public QuestionDAO(DataSource dataSource, MeterRegistry meterRegistry) {
+        super(dataSource, meterRegistry);
     }
 
     // CREATE
@@ -18,38 +22,18 @@ public class QuestionDAO {
             VALUES (?, ?, ?, ?)
             RETURNING question_id;
             """;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        return insertReturningId(sql, "question_id", stmt -> {
             stmt.setObject(1, roundId);
             stmt.setString(2, type);
             stmt.setString(3, text);
             if (mediaUrl != null) stmt.setString(4, mediaUrl); else stmt.setNull(4, Types.VARCHAR);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return (UUID) rs.getObject("question_id");
-            } else {
-                throw new SQLException("Insert failed, no ID returned.");
-            }
-        }
+        });
     }
 
     // READ
     public Question getById(UUID questionId) throws SQLException {
         String sql = "SELECT * FROM questions WHERE question_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setObject(1, questionId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new Question(
-                    (UUID) rs.getObject("question_id"),
-                    (UUID) rs.getObject("round_id"),
-                    rs.getString("type"),
-                    rs.getString("text"),
-                    rs.getString("media_url")
-                );
-            } else {
-                return null;
-            }
-        }
+        return queryOne(sql, stmt -> stmt.setObject(1, questionId), RowMappers.QUESTION);
     }
 
     // UPDATE
@@ -59,24 +43,20 @@ public class QuestionDAO {
             SET round_id = ?, type = ?, text = ?, media_url = ?
             WHERE question_id = ?;
             """;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        int affected = update(sql, stmt -> {
             stmt.setObject(1, question.roundId());
             stmt.setString(2, question.type());
             stmt.setString(3, question.text());
             if (question.mediaUrl() != null) stmt.setString(4, question.mediaUrl()); else stmt.setNull(4, Types.VARCHAR);
             stmt.setObject(5, question.questionId());
-            int affected = stmt.executeUpdate();
-            return affected > 0;
-        }
+        });
+        return affected > 0;
     }
 
     // DELETE
     public boolean delete(UUID questionId) throws SQLException {
         String sql = "DELETE FROM questions WHERE question_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setObject(1, questionId);
-            int affected = stmt.executeUpdate();
-            return affected > 0;
-        }
+        int affected = update(sql, stmt -> stmt.setObject(1, questionId));
+        return affected > 0;
     }
-}
\ No newline at end of file
+}
@@ -1,14 +1,18 @@
 package com.example.trivia.dao;
 
 import com.example.trivia.model.QuestionOption;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.UUID;
 
-public class QuestionOptionDAO {
-    private final Connection connection;
+@Component
+public class QuestionOptionDAO extends DaoSupport {
 
-    public QuestionOptionDAO(Connection connection) {
-        this.connection = connection;
+    public QuestionOptionDAO(DataSource dataSource, MeterRegistry meterRegistry) {
+        super(dataSource, meterRegistry);
     }
 
     // CREATE
@@ -18,36 +22,17 @@ public class QuestionOptionDAO {
             VALUES (?, ?, ?)
             RETURNING option_id;
             """;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        return insertReturningId(sql, "option_id", stmt -> {
             stmt.setObject(1, questionId);
             stmt.setString(2, text);
             stmt.setBoolean(3, isCorrect);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return (UUID) rs.getObject("option_id");
-            } else {
-                throw new SQLException("Insert failed, no ID returned.");
-            }
-        }
+        });
     }
 
     // READ
     public QuestionOption getById(UUID optionId) throws SQLException {
         String sql = "SELECT * FROM question_options WHERE option_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setObject(1, optionId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new QuestionOption(
-                    (UUID) rs.getObject("option_id"),
-                    (UUID) rs.getObject("question_id"),
-                    rs.getString("text"),
-                    rs.getBoolean("is_correct")
-                );
-            } else {
-                return null;
-            }
-        }
+        return queryOne(sql, stmt -> stmt.setObject(1, optionId), RowMappers.QUESTION_OPTION);
     }
 
     // UPDATE
@@ -57,23 +42,19 @@ public class QuestionOptionDAO {
             SET question_id = ?, text = ?, is_correct = ?
             WHERE option_id = ?;
             """;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        int affected = update(sql, stmt -> {
             stmt.setObject(1, option.questionId());
             stmt.setString(2, option.text());
             stmt.setBoolean(3, option.isCorrect());
             stmt.setObject(4, option.optionId());
-            int affected = stmt.executeUpdate();
-            return affected > 0;
-        }
+        });
+        return affected > 0;
     }
 
     // DELETE
     public boolean delete(UUID optionId) throws SQLException {
         String sql = "DELETE FROM question_options WHERE option_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setObject(1, optionId);
-            int affected = stmt.executeUpdate();
-            return affected > 0;
-        }
+        int affected = update(sql, stmt -> stmt.setObject(1, optionId));
+        return affected > 0;
     }
-}
\ No newline at end of file
+}
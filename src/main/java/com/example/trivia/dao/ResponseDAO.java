@@ -1,14 +1,19 @@
 package com.example.trivia.dao;
 
 import com.example.trivia.model.Response;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
 import java.sql.*;
+import java.util.List;
 import java.util.UUID;
 
-public class ResponseDAO {
-    private final Connection connection;
+@Component
+public class ResponseDAO extends DaoSupport {
 
-    public ResponseDAO(Connection connection) {
-        this.connection = connection;
+    public ResponseDAO(DataSource dataSource, MeterRegistry meterRegistry) {
+        super(dataSource, meterRegistry);
     }
 
     // CREATE
@@ -18,71 +23,70 @@ public class ResponseDAO {
             VALUES (?, ?, ?, ?, ?, ?)
             RETURNING response_id;
             """;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        return insertReturningId(sql, "response_id", stmt -> {
             stmt.setObject(1, questionId);
             stmt.setObject(2, playerId);
             stmt.setTimestamp(3, submittedAt);
             if (textReply != null) stmt.setString(4, textReply); else stmt.setNull(4, Types.VARCHAR);
             if (optionId != null) stmt.setObject(5, optionId); else stmt.setNull(5, Types.OTHER);
             if (isCorrect != null) stmt.setBoolean(6, isCorrect); else stmt.setNull(6, Types.BOOLEAN);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return (UUID) rs.getObject("response_id");
-            } else {
-                throw new SQLException("Insert failed, no ID returned.");
-            }
-        }
+        });
+    }
+
+    // CREATE (batch): one round-trip for the whole list; with reWriteBatchedInserts
+    // the driver sends it as multi-row INSERTs
+    public int[] insertBatch(List<Response> responses) throws SQLException {
+        String sql = """
+            INSERT INTO responses (response_id, question_id, player_id, submitted_at, text_reply, option_id, is_correct)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+        return batch(sql, responses, (stmt, response) -> {
+            stmt.setObject(1, response.responseId());
+            stmt.setObject(2, response.questionId());
+            stmt.setObject(3, response.playerId());
+            stmt.setTimestamp(4, response.submittedAt());
+            if (response.textReply() != null) stmt.setString(5, response.textReply()); else stmt.setNull(5, Types.VARCHAR);
+            if (response.optionId() != null) stmt.setObject(6, response.optionId()); else stmt.setNull(6, Types.OTHER);
+            if (response.isCorrect() != null) stmt.setBoolean(7, response.isCorrect()); else stmt.setNull(7, Types.BOOLEAN);
+        });
     }
 
-    // READ
-    public Response getById(UUID responseId) throws SQLException {
-        String sql = "SELECT * FROM responses WHERE response_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+    // READ. submitted_at is part of the primary key and the partition key: with it
+    // only the partition of that day is searched, instead of every partition
+    public Response getById(UUID responseId, Timestamp submittedAt) throws SQLException {
+        String sql = "SELECT * FROM responses WHERE response_id = ? AND submitted_at = ?";
+        return queryOne(sql, stmt -> {
             stmt.setObject(1, responseId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new Response(
-                    (UUID) rs.getObject("response_id"),
-                    (UUID) rs.getObject("question_id"),
-                    (UUID) rs.getObject("player_id"),
-                    rs.getTimestamp("submitted_at"),
-                    rs.getString("text_reply"),
-                    (UUID) rs.getObject("option_id"),
-                    rs.getObject("is_correct") != null ? rs.getBoolean("is_correct") : null
-                );
-            } else {
-                return null;
-            }
-        }
+            stmt.setTimestamp(2, submittedAt);
+        }, RowMappers.RESPONSE);
     }
 
-    // UPDATE
+    // UPDATE. The response keeps its submitted_at, which locates the row
     public boolean update(Response response) throws SQLException {
         String sql = """
             UPDATE responses
-            SET question_id = ?, player_id = ?, submitted_at = ?, text_reply = ?, option_id = ?, is_correct = ?
-            WHERE response_id = ?;
+            SET question_id = ?, player_id = ?, text_reply = ?, option_id = ?, is_correct = ?
+            WHERE response_id = ? AND submitted_at = ?;
             """;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        int affected = update(sql, stmt -> {
             stmt.setObject(1, response.questionId());
             stmt.setObject(2, response.playerId());
-            stmt.setTimestamp(3, response.submittedAt());
-            if (response.textReply() != null) stmt.setString(4, response.textReply()); else stmt.setNull(4, Types.VARCHAR);
-            if (response.optionId() != null) stmt.setObject(5, response.optionId()); else stmt.setNull(5, Types.OTHER);
-            if (response.isCorrect() != null) stmt.setBoolean(6, response.isCorrect()); else stmt.setNull(6, Types.BOOLEAN);
-            stmt.setObject(7, response.responseId());
-            int affected = stmt.executeUpdate();
-            return affected > 0;
-        }
+            if (response.textReply() != null) stmt.setString(3, response.textReply()); else stmt.setNull(3, Types.VARCHAR);
+            if (response.optionId() != null) stmt.setObject(4, response.optionId()); else stmt.setNull(4, Types.OTHER);
+            if (response.isCorrect() != null) stmt.setBoolean(5, response.isCorrect()); else stmt.setNull(5, Types.BOOLEAN);
+            stmt.setObject(6, response.responseId());
+            stmt.setTimestamp(7, response.submittedAt());
+        });
+        return affected > 0;
     }
 
     // DELETE
-    public boolean delete(UUID responseId) throws SQLException {
-        String sql = "DELETE FROM responses WHERE response_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+    public boolean delete(UUID responseId, Timestamp submittedAt) throws SQLException {
+        String sql = "DELETE FROM responses WHERE response_id = ? AND submitted_at = ?";
+        int affected = update(sql, stmt -> {
             stmt.setObject(1, responseId);
-            int affected = stmt.executeUpdate();
-            return affected > 0;
-        }
+            stmt.setTimestamp(2, submittedAt);
+        });
+        return affected > 0;
     }
-}
\ No newline at end of file
+}
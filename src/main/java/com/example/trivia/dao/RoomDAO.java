@@ -1,14 +1,18 @@
 package com.example.trivia.dao;
 
 import com.example.trivia.model.Room;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.UUID;
 
-public class RoomDAO {
-    private final Connection connection;
+@Component
+public class RoomDAO extends DaoSupport {
 
-    public RoomDAO(Connection connection) {
-        this.connection = connection;
+    public RoomDAO(DataSource dataSource, MeterRegistry meterRegistry) {
+        super(dataSource, meterRegistry);
     }
 
     // CREATE
@@ -18,35 +22,16 @@ public class RoomDAO {
             VALUES (?, ?)
             RETURNING room_id;
             """;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        return insertReturningId(sql, "room_id", stmt -> {
             stmt.setString(1, slug);
             stmt.setObject(2, settingsId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return (UUID) rs.getObject("room_id");
-            } else {
-                throw new SQLException("Insert failed, no ID returned.");
-            }
-        }
+        });
     }
 
     // READ
     public Room getById(UUID roomId) throws SQLException {
         String sql = "SELECT * FROM rooms WHERE room_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setObject(1, roomId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new Room(
-                    (UUID) rs.getObject("room_id"),
-                    rs.getString("slug"),
-                    rs.getTimestamp("created_at"),
-                    (UUID) rs.getObject("settings_id")
-                );
-            } else {
-                return null;
-            }
-        }
+        return queryOne(sql, stmt -> stmt.setObject(1, roomId), RowMappers.ROOM);
     }
 
     // UPDATE
@@ -56,22 +41,18 @@ public class RoomDAO {
             SET slug = ?, settings_id = ?
             WHERE room_id = ?;
             """;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        int affected = update(sql, stmt -> {
             stmt.setString(1, room.slug());
             stmt.setObject(2, room.settingsId());
             stmt.setObject(3, room.roomId());
-            int affected = stmt.executeUpdate();
-            return affected > 0;
-        }
+        });
+        return affected > 0;
     }
 
     // DELETE
     public boolean delete(UUID roomId) throws SQLException {
         String sql = "DELETE FROM rooms WHERE room_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setObject(1, roomId);
-            int affected = stmt.executeUpdate();
-            return affected > 0;
-        }
+        int affected = update(sql, stmt -> stmt.setObject(1, roomId));
+        return affected > 0;
     }
-}
\ No newline at end of file
+}
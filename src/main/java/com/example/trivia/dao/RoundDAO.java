@@ -1,14 +1,18 @@
 package com.example.trivia.dao;
 
 import com.example.trivia.model.Round;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.UUID;
 
-public class RoundDAO {
-    private final Connection connection;
+@Component
+public class RoundDAO extends DaoSupport {
 
-    public RoundDAO(Connection connection) {
-        this.connection = connection;
+    public RoundDAO(DataSource dataSource, MeterRegistry meterRegistry) {
+        super(dataSource, meterRegistry);
     }
 
     // CREATE
@@ -18,38 +22,18 @@ public class RoundDAO {
             VALUES (?, ?, ?, ?)
             RETURNING round_id;
             """;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        return insertReturningId(sql, "round_id", stmt -> {
             stmt.setObject(1, gameId);
             stmt.setInt(2, number);
             stmt.setTimestamp(3, startedAt);
             if (endedAt != null) stmt.setTimestamp(4, endedAt); else stmt.setNull(4, Types.TIMESTAMP);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return (UUID) rs.getObject("round_id");
-            } else {
-                throw new SQLException("Insert failed, no ID returned.");
-            }
-        }
+        });
     }
 
     // READ
     public Round getById(UUID roundId) throws SQLException {
         String sql = "SELECT * FROM rounds WHERE round_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setObject(1, roundId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new Round(
-                    (UUID) rs.getObject("round_id"),
-                    (UUID) rs.getObject("game_id"),
-                    rs.getInt("number"),
-                    rs.getTimestamp("started_at"),
-                    rs.getTimestamp("ended_at")
-                );
-            } else {
-                return null;
-            }
-        }
+        return queryOne(sql, stmt -> stmt.setObject(1, roundId), RowMappers.ROUND);
     }
 
     // UPDATE
@@ -59,24 +43,20 @@ public class RoundDAO {
             SET game_id = ?, number = ?, started_at = ?, ended_at = ?
             WHERE round_id = ?;
             """;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        int affected = update(sql, stmt -> {
             stmt.setObject(1, round.gameId());
             stmt.setInt(2, round.number());
             stmt.setTimestamp(3, round.startedAt());
             if (round.endedAt() != null) stmt.setTimestamp(4, round.endedAt()); else stmt.setNull(4, Types.TIMESTAMP);
             stmt.setObject(5, round.roundId());
-            int affected = stmt.executeUpdate();
-            return affected > 0;
-        }
+        });
+        return affected > 0;
     }
 
     // DELETE
     public boolean delete(UUID roundId) throws SQLException {
         String sql = "DELETE FROM rounds WHERE round_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setObject(1, roundId);
-            int affected = stmt.executeUpdate();
-            return affected > 0;
-        }
+        int affected = update(sql, stmt -> stmt.setObject(1, roundId));
+        return affected > 0;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,119 @@
+package com.example.trivia.dao;
+
+import com.example.trivia.model.Game;
+import com.example.trivia.model.Player;
+import com.example.trivia.model.Question;
+import com.example.trivia.model.QuestionOption;
+import com.example.trivia.model.Response;
+import com.example.trivia.model.Room;
+import com.example.trivia.model.Round;
+import com.example.trivia.model.Settings;
+import com.example.trivia.model.Team;
+import com.example.trivia.model.TeamScore;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Row mappers for the records in {@code model}, shared by the DAOs and by any
+ * JdbcTemplate query that selects the same columns.
+ */
+public final class RowMappers {
+    public static final RowMapper<Game> GAME = (rs, rowNum) -> new Game(
+        (UUID) rs.getObject("game_id"),
+        (UUID) rs.getObject("room_id"),
+        rs.getTimestamp("started_at"),
+        rs.getTimestamp("ended_at"),
+        (UUID) rs.getObject("settings_id")
+    );
+
+    public static final RowMapper<Player> PLAYER = (rs, rowNum) -> new Player(
+        (UUID) rs.getObject("player_id"),
+        (UUID) rs.getObject("room_id"),
+        rs.getString("username"),
+        rs.getBoolean("is_host"),
+        (UUID) rs.getObject("team_id")
+    );
+
+    public static final RowMapper<Question> QUESTION = (rs, rowNum) -> new Question(
+        (UUID) rs.getObject("question_id"),
+        (UUID) rs.getObject("round_id"),
+        rs.getString("type"),
+        rs.getString("text"),
+        rs.getString("media_url"),
+        stringList(rs.getArray("correct_answers"))
+    );
+
+    public static final RowMapper<QuestionOption> QUESTION_OPTION = (rs, rowNum) -> new QuestionOption(
+        (UUID) rs.getObject("option_id"),
+        (UUID) rs.getObject("question_id"),
+        rs.getString("text"),
+        rs.getBoolean("is_correct")
+    );
+
+    public static final RowMapper<Response> RESPONSE = (rs, rowNum) -> new Response(
+        (UUID) rs.getObject("response_id"),
+        (UUID) rs.getObject("question_id"),
+        (UUID) rs.getObject("player_id"),
+        rs.getTimestamp("submitted_at"),
+        rs.getString("text_reply"),
+        (UUID) rs.getObject("option_id"),
+        rs.getObject("is_correct") != null ? rs.getBoolean("is_correct") : null
+    );
+
+    public static final RowMapper<Room> ROOM = (rs, rowNum) -> new Room(
+        (UUID) rs.getObject("room_id"),
+        rs.getString("slug"),
+        rs.getTimestamp("created_at"),
+        (UUID) rs.getObject("settings_id")
+    );
+
+    public static final RowMapper<Round> ROUND = (rs, rowNum) -> new Round(
+        (UUID) rs.getObject("round_id"),
+        (UUID) rs.getObject("game_id"),
+        rs.getInt("number"),
+        rs.getTimestamp("started_at"),
+        rs.getTimestamp("ended_at")
+    );
+
+    public static final RowMapper<Settings> SETTINGS = (rs, rowNum) -> new Settings(
+        (UUID) rs.getObject("settings_id"),
+        rs.getInt("rounds"),
+        rs.getInt("time_per_round"),
+        rs.getInt("questions_per_round"),
+        rs.getString("difficulty"),
+        rs.getInt("max_players_per_team"),
+        rs.getInt("version")
+    );
+
+    public static final RowMapper<Team> TEAM = (rs, rowNum) -> new Team(
+        (UUID) rs.getObject("team_id"),
+        (UUID) rs.getObject("room_id"),
+        rs.getString("name")
+    );
+
+    public static final RowMapper<TeamScore> TEAM_SCORE = (rs, rowNum) -> new TeamScore(
+        (UUID) rs.getObject("score_id"),
+        (UUID) rs.getObject("round_id"),
+        (UUID) rs.getObject("team_id"),
+        rs.getInt("points")
+    );
+
+    /** A TEXT[] column as a list; null stays null (e.g. multiple-choice questions). */
+    private static List<String> stringList(Array array) throws SQLException {
+        if (array == null) {
+            return null;
+        }
+        try {
+            return List.of((String[]) array.getArray());
+        } finally {
+            array.free();
+        }
+    }
+
+    private RowMappers() {}
+}
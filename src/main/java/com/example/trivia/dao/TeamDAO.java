@@ -1,14 +1,18 @@
 package com.example.trivia.dao;
 
 import com.example.trivia.model.Team;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.UUID;
 
-public class TeamDAO {
-    private final Connection connection;
+@Component
+public class TeamDAO extends DaoSupport {
 
-    public TeamDAO(Connection connection) {
-        this.connection = connection;
+    public TeamDAO(DataSource dataSource, MeterRegistry meterRegistry) {
+        super(dataSource, meterRegistry);
     }
 
     // CREATE
@@ -18,34 +22,16 @@ public class TeamDAO {
             VALUES (?, ?)
             RETURNING team_id;
             """;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        return insertReturningId(sql, "team_id", stmt -> {
             stmt.setObject(1, roomId);
             stmt.setString(2, name);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return (UUID) rs.getObject("team_id");
-            } else {
-                throw new SQLException("Insert failed, no ID returned.");
-            }
-        }
+        });
     }
 
     // READ
     public Team getById(UUID teamId) throws SQLException {
         String sql = "SELECT * FROM teams WHERE team_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setObject(1, teamId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new Team(
-                    (UUID) rs.getObject("team_id"),
-                    (UUID) rs.getObject("room_id"),
-                    rs.getString("name")
-                );
-            } else {
-                return null;
-            }
-        }
+        return queryOne(sql, stmt -> stmt.setObject(1, teamId), RowMappers.TEAM);
     }
 
     // UPDATE
@@ -55,22 +41,18 @@ public class TeamDAO {
             SET room_id = ?, name = ?
             WHERE team_id = ?;
             """;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        int affected = update(sql, stmt -> {
             stmt.setObject(1, team.roomId());
             stmt.setString(2, team.name());
             stmt.setObject(3, team.teamId());
-            int affected = stmt.executeUpdate();
-            return affected > 0;
-        }
+        });
+        return affected > 0;
     }
 
     // DELETE
     public boolean delete(UUID teamId) throws SQLException {
         String sql = "DELETE FROM teams WHERE team_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setObject(1, teamId);
-            int affected = stmt.executeUpdate();
-            return affected > 0;
-        }
+        int affected = update(sql, stmt -> stmt.setObject(1, teamId));
+        return affected > 0;
     }
-}
\ No newline at end of file
+}
@@ -1,79 +1,83 @@
 package com.example.trivia.dao;
 
 import com.example.trivia.model.TeamScore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
 import java.sql.*;
+import java.util.List;
 import java.util.UUID;
 
-public class TeamScoreDAO {
-    private final Connection connection;
+@Component
+public class TeamScoreDAO extends DaoSupport {
 
-    public TeamScoreDAO(Connection connection) {
-        this.connection = connection;
+    public TeamScoreDAO(DataSource dataSource, MeterRegistry meterRegistry) {
+        super(dataSource, meterRegistry);
     }
 
     // CREATE
     public UUID insert(UUID roundId, UUID teamId, int points) throws SQLException {
         String sql = """
-            INSERT INTO team_scores (round_id, team_id, points)
-            VALUES (?, ?, ?)
+            INSERT INTO team_scores (round_id, team_id, points, round_ended_at)
+            VALUES (?, ?, ?, (SELECT ended_at FROM rounds WHERE round_id = ?))
             RETURNING score_id;
             """;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        return insertReturningId(sql, "score_id", stmt -> {
             stmt.setObject(1, roundId);
             stmt.setObject(2, teamId);
             stmt.setInt(3, points);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return (UUID) rs.getObject("score_id");
-            } else {
-                throw new SQLException("Insert failed, no ID returned.");
-            }
-        }
+            stmt.setObject(4, roundId);
+        });
     }
 
-    // READ
-    public TeamScore getById(UUID scoreId) throws SQLException {
-        String sql = "SELECT * FROM team_scores WHERE score_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+    // CREATE (batch): scores of a whole round in one round-trip
+    public int[] insertBatch(List<TeamScore> teamScores) throws SQLException {
+        String sql = """
+            INSERT INTO team_scores (round_id, team_id, points, round_ended_at)
+            VALUES (?, ?, ?, (SELECT ended_at FROM rounds WHERE round_id = ?))
+            """;
+        return batch(sql, teamScores, (stmt, teamScore) -> {
+            stmt.setObject(1, teamScore.roundId());
+            stmt.setObject(2, teamScore.teamId());
+            stmt.setInt(3, teamScore.points());
+            stmt.setObject(4, teamScore.roundId());
+        });
+    }
+
+    // READ. round_ended_at (the round's ended_at) is part of the primary key and the
+    // partition key: with it only the partition of that day is searched
+    public TeamScore getById(UUID scoreId, Timestamp roundEndedAt) throws SQLException {
+        String sql = "SELECT * FROM team_scores WHERE score_id = ? AND round_ended_at = ?";
+        return queryOne(sql, stmt -> {
             stmt.setObject(1, scoreId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new TeamScore(
-                    (UUID) rs.getObject("score_id"),
-                    (UUID) rs.getObject("round_id"),
-                    (UUID) rs.getObject("team_id"),
-                    rs.getInt("points")
-                );
-            } else {
-                return null;
-            }
-        }
+            stmt.setTimestamp(2, roundEndedAt);
+        }, RowMappers.TEAM_SCORE);
     }
 
-    // UPDATE
-    public boolean update(TeamScore teamScore) throws SQLException {
+    // UPDATE. The score stays in its round, whose ended_at locates the row
+    public boolean update(TeamScore teamScore, Timestamp roundEndedAt) throws SQLException {
         String sql = """
             UPDATE team_scores
-            SET round_id = ?, team_id = ?, points = ?
-            WHERE score_id = ?;
+            SET team_id = ?, points = ?
+            WHERE score_id = ? AND round_ended_at = ?;
             """;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setObject(1, teamScore.roundId());
-            stmt.setObject(2, teamScore.teamId());
-            stmt.setInt(3, teamScore.points());
-            stmt.setObject(4, teamScore.scoreId());
-            int affected = stmt.executeUpdate();
-            return affected > 0;
-        }
+        int affected = update(sql, stmt -> {
+            stmt.setObject(1, teamScore.teamId());
+            stmt.setInt(2, teamScore.points());
+            stmt.setObject(3, teamScore.scoreId());
+            stmt.setTimestamp(4, roundEndedAt);
+        });
+        return affected > 0;
     }
 
     // DELETE
-    public boolean delete(UUID scoreId) throws SQLException {
-        String sql = "DELETE FROM team_scores WHERE score_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+    public boolean delete(UUID scoreId, Timestamp roundEndedAt) throws SQLException {
+        String sql = "DELETE FROM team_scores WHERE score_id = ? AND round_ended_at = ?";
+        int affected = update(sql, stmt -> {
             stmt.setObject(1, scoreId);
-            int affected = stmt.executeUpdate();
-            return affected > 0;
-        }
+            stmt.setTimestamp(2, roundEndedAt);
+        });
+        return affected > 0;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package com.example.trivia.grading;
+
+import com.example.trivia.model.Question;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Grades replies with an {@link AnswerMatcher} compiled once per question and
+ * kept for as long as the question stays in {@link com.example.trivia.cache.GameCache}.
+ */
+@Component
+public class AnswerGrader {
+    private final Cache<UUID, AnswerMatcher> matchers;
+    private final boolean typoTolerant;
+
+    public AnswerGrader(
+            @Value("${trivia.grading.typo-tolerant:true}") boolean typoTolerant,
+            @Value("${trivia.cache.ttl-minutes:120}") long ttlMinutes,
+            @Value("${trivia.cache.max-games:10000}") long maxGames) {
+        this.typoTolerant = typoTolerant;
+        this.matchers = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .maximumSize(maxGames * 50)
+                .build();
+    }
+
+    public boolean isCorrect(Question question, String reply) {
+        AnswerMatcher matcher = matchers.get(question.questionId(),
+                id -> AnswerMatcher.compile(question.correctAnswers(), typoTolerant));
+        return matcher.matches(reply);
+    }
+}
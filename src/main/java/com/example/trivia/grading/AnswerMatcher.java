@@ -0,0 +1,310 @@
+package com.example.trivia.grading;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compiled form of the correct answers of one question.
+ *
+ * Answers and replies are compared after folding: lower case, accents removed
+ * ("Amélie" = "amelie"), apostrophes dropped ("Schindler's" = "schindlers") and
+ * any run of punctuation or whitespace reduced to one space. A leading article
+ * is optional on either side ("Godfather" and "The Godfather" match each
+ * other), unless the next word is also an article: "La La Land" keeps its
+ * first "La", so "la land" is not accepted.
+ *
+ * Exact matching folds the reply on the fly while hashing it and never
+ * allocates. With typo tolerance enabled, a reply that does not match exactly
+ * is accepted if it is within a small edit distance of a correct answer.
+ */
+public final class AnswerMatcher {
+    private static final String[] ARTICLES = {"the", "a", "an", "el", "la", "los", "las"};
+
+    // fold() results for chars below FOLD_TABLE_SIZE: DROP, SEPARATOR or up to two packed chars
+    private static final int DROP = 0;
+    private static final int SEPARATOR = -1;
+    private static final int FOLD_TABLE_SIZE = 0x250;
+    private static final int[] FOLD = buildFoldTable();
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final String[] answers;
+    private final long[] hashes;
+    private final boolean typoTolerant;
+
+    private AnswerMatcher(String[] answers, boolean typoTolerant) {
+        this.answers = answers;
+        this.hashes = new long[answers.length];
+        for (int i = 0; i < answers.length; i++) {
+            hashes[i] = hash(answers[i], 0);
+        }
+        this.typoTolerant = typoTolerant;
+    }
+
+    public static AnswerMatcher compile(List<String> correctAnswers, boolean typoTolerant) {
+        Set<String> folded = new LinkedHashSet<>();
+        if (correctAnswers != null) {
+            for (String answer : correctAnswers) {
+                if (answer == null) {
+                    continue;
+                }
+                String normalized = normalize(answer);
+                if (!normalized.isEmpty()) {
+                    folded.add(normalized.substring(contentStart(normalized)));
+                }
+            }
+        }
+        return new AnswerMatcher(folded.toArray(new String[0]), typoTolerant);
+    }
+
+    public boolean matches(String reply) {
+        if (reply == null || answers.length == 0) {
+            return false;
+        }
+
+        int start = contentStart(reply);
+        long h = hash(reply, start);
+        for (int i = 0; i < answers.length; i++) {
+            if (hashes[i] == h && foldedEquals(reply, start, answers[i])) {
+                return true;
+            }
+        }
+        if (!typoTolerant) {
+            return false;
+        }
+        String normalized = normalize(reply);
+        return matchesWithTypos(normalized.substring(contentStart(normalized)));
+    }
+
+    /** Folded form used for comparisons. */
+    public static String normalize(CharSequence text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            int f = fold(text.charAt(i));
+            if (f == DROP) {
+                continue;
+            }
+            if (f == SEPARATOR) {
+                pendingSpace = sb.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                sb.append(' ');
+                pendingSpace = false;
+            }
+            sb.append((char) (f & 0xFFFF));
+            if ((f >>> 16) != 0) {
+                sb.append((char) (f >>> 16));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Index of {@code text} where the compared part starts: past a leading
+     * article, if a word that is not an article follows it, otherwise 0.
+     */
+    private static int contentStart(CharSequence text) {
+        int start = skipSeparators(text, 0);
+        int end = wordEnd(text, start);
+        if (!isArticle(text, start, end)) {
+            return 0;
+        }
+        int next = skipSeparators(text, end);
+        if (next == text.length() || isArticle(text, next, wordEnd(text, next))) {
+            return 0;
+        }
+        return next;
+    }
+
+    private static int skipSeparators(CharSequence text, int from) {
+        while (from < text.length() && fold(text.charAt(from)) == SEPARATOR) {
+            from++;
+        }
+        return from;
+    }
+
+    private static int wordEnd(CharSequence text, int from) {
+        while (from < text.length() && fold(text.charAt(from)) != SEPARATOR) {
+            from++;
+        }
+        return from;
+    }
+
+    /** Whether the folded form of {@code text[from, to)} is one of {@link #ARTICLES}. */
+    private static boolean isArticle(CharSequence text, int from, int to) {
+        for (String article : ARTICLES) {
+            int j = 0;
+            int i = from;
+            for (; i < to; i++) {
+                int f = fold(text.charAt(i));
+                if (f == DROP) {
+                    continue;
+                }
+                if (j >= article.length() || f != article.charAt(j++)) {
+                    break;
+                }
+            }
+            if (i == to && j == article.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesWithTypos(String reply) {
+        for (String answer : answers) {
+            int maxEdits = maxEdits(answer.length());
+            if (maxEdits > 0 && Math.abs(answer.length() - reply.length()) <= maxEdits
+                    && editDistanceWithin(reply, answer, maxEdits)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Short answers must be exact: one typo in "Up" is a different film
+    private static int maxEdits(int length) {
+        if (length <= 4) return 0;
+        if (length <= 8) return 1;
+        return 2;
+    }
+
+    /** Levenshtein distance limited to a diagonal band of width 2 * max + 1. */
+    private static boolean editDistanceWithin(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(b.length(), i + max);
+            current[from - 1] = from == 1 ? i : max + 1;
+            int rowMin = current[from - 1];
+            for (int j = from; j <= to; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(previous[j - 1] + cost,
+                        Math.min(previous[j] + 1, current[j - 1] + 1));
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (to < b.length()) {
+                current[to + 1] = max + 1;
+            }
+            if (rowMin > max) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= max;
+    }
+
+    private static long hash(CharSequence text, int from) {
+        long h = FNV_OFFSET;
+        boolean started = false;
+        boolean pendingSpace = false;
+        for (int i = from; i < text.length(); i++) {
+            int f = fold(text.charAt(i));
+            if (f == DROP) {
+                continue;
+            }
+            if (f == SEPARATOR) {
+                pendingSpace = started;
+                continue;
+            }
+            if (pendingSpace) {
+                h = (h ^ ' ') * FNV_PRIME;
+                pendingSpace = false;
+            }
+            h = (h ^ (f & 0xFFFF)) * FNV_PRIME;
+            if ((f >>> 16) != 0) {
+                h = (h ^ (f >>> 16)) * FNV_PRIME;
+            }
+            started = true;
+        }
+        return h;
+    }
+
+    /** Compares the folded form of {@code reply[from..]} with an already folded answer, without building it. */
+    private static boolean foldedEquals(CharSequence reply, int from, String answer) {
+        int j = 0;
+        boolean pendingSpace = false;
+        for (int i = from; i < reply.length(); i++) {
+            int f = fold(reply.charAt(i));
+            if (f == DROP) {
+                continue;
+            }
+            if (f == SEPARATOR) {
+                pendingSpace = j > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                if (j >= answer.length() || answer.charAt(j++) != ' ') return false;
+                pendingSpace = false;
+            }
+            if (j >= answer.length() || answer.charAt(j++) != (char) (f & 0xFFFF)) return false;
+            if ((f >>> 16) != 0) {
+                if (j >= answer.length() || answer.charAt(j++) != (char) (f >>> 16)) return false;
+            }
+        }
+        return j == answer.length();
+    }
+
+    private static int fold(char c) {
+        if (c < FOLD_TABLE_SIZE) {
+            return FOLD[c];
+        }
+        if (Character.getType(c) == Character.NON_SPACING_MARK) {
+            return DROP;
+        }
+        if (c == '\u2019' || c == '\u2018') {
+            return DROP; // typographic apostrophes
+        }
+        return Character.isLetterOrDigit(c) ? Character.toLowerCase(c) : SEPARATOR;
+    }
+
+    private static int[] buildFoldTable() {
+        int[] table = new int[FOLD_TABLE_SIZE];
+        for (char c = 0; c < FOLD_TABLE_SIZE; c++) {
+            if (c == '\'' || c == '`' || c == '\u00B4') {
+                table[c] = DROP;
+            } else if (!Character.isLetterOrDigit(c)) {
+                table[c] = SEPARATOR;
+            } else {
+                String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+                char base = Character.toLowerCase(decomposed.charAt(0));
+                table[c] = Character.isLetterOrDigit(base) ? base : Character.toLowerCase(c);
+            }
+        }
+        // Letters that do not decompose into a base letter + accent: ß, Æ, Œ, Ø, Ł, Đ
+        table['\u00DF'] = pack('s', 's');
+        table['\u00C6'] = pack('a', 'e');
+        table['\u00E6'] = pack('a', 'e');
+        table['\u0152'] = pack('o', 'e');
+        table['\u0153'] = pack('o', 'e');
+        table['\u00D8'] = 'o';
+        table['\u00F8'] = 'o';
+        table['\u0141'] = 'l';
+        table['\u0142'] = 'l';
+        table['\u0110'] = 'd';
+        table['\u0111'] = 'd';
+        return table;
+    }
+
+    private static int pack(char first, char second) {
+        return first | (second << 16);
+    }
+
+    @Override
+    public String toString() {
+        return "AnswerMatcher" + Arrays.toString(answers);
+    }
+}
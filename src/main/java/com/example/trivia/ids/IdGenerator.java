@@ -0,0 +1,17 @@
+package com.example.trivia.ids;
+
+import java.util.UUID;
+
+/**
+ * Source of the ids the application assigns itself (rooms, players, games,
+ * rounds, answers). Rows inserted without an id get theirs from the column
+ * default, {@code uuid_generate_v7()} in schema.sql.
+ */
+@FunctionalInterface
+public interface IdGenerator {
+    UUID next();
+
+    default String nextString() {
+        return next().toString();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.trivia.ids;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/** Ids that arrive as text: path variables, request bodies, WebSocket messages. */
+public final class Ids {
+
+    /** The id, or empty if {@code id} is null or not a UUID, i.e. it cannot match any row. */
+    public static Optional<UUID> parse(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(UUID.fromString(id));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Ids() {}
+}
@@ -0,0 +1,16 @@
+package com.example.trivia.importer;
+
+import java.util.List;
+
+/** One question of an import file, before it is assigned a bank id. */
+public record ImportedQuestion(
+    String id,
+    String type,
+    String difficulty,
+    String text,
+    String mediaUrl,
+    List<String> answers,
+    List<Option> options
+) {
+    public record Option(String text, boolean correct) {}
+}
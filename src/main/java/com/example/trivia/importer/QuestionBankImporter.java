@@ -0,0 +1,247 @@
+package com.example.trivia.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk loader for the question bank.
+ *
+ * The file is streamed twice (questions, then options) straight into
+ * {@code COPY ... FROM STDIN} on temporary staging tables, and the rows are
+ * then moved into {@code question_bank}/{@code question_bank_options} with a
+ * few set-based statements, all in one transaction. Memory use only grows
+ * with the ids of the file, kept to drop duplicates, and there is no per-row
+ * round-trip.
+ *
+ * Questions are keyed by their file id ({@code question_bank.external_id}):
+ * importing the same file again updates those questions and replaces their
+ * options instead of duplicating them. Within a file the first question with
+ * an id wins; later ones are skipped, options included.
+ */
+@Service
+public class QuestionBankImporter {
+    private static final Logger log = LoggerFactory.getLogger(QuestionBankImporter.class);
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+
+    public record ImportResult(long read, long imported, long options, long skipped) {}
+
+    /** Questions read by the first pass, and the positions skipped as repeated ids. */
+    private record Copied(long read, Set<Long> duplicates) {}
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+
+    public QuestionBankImporter(DataSource dataSource, ObjectMapper objectMapper) {
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+    }
+
+    public ImportResult importFile(Path file) throws IOException, SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                ImportResult result = importFile(file, connection);
+                connection.commit();
+                log.info("Imported {} of {} questions ({} options, {} skipped) from {} in {} ms",
+                        result.imported(), result.read(), result.options(), result.skipped(), file,
+                        (System.nanoTime() - start) / 1_000_000);
+                return result;
+            } catch (IOException | SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private ImportResult importFile(Path file, Connection connection) throws IOException, SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("""
+                CREATE TEMP TABLE staging_questions (
+                  external_id TEXT, type TEXT, difficulty TEXT, text TEXT, media_url TEXT, correct_answers TEXT[]
+                ) ON COMMIT DROP
+                """);
+            stmt.execute("""
+                CREATE TEMP TABLE staging_options (
+                  external_id TEXT, text TEXT, is_correct BOOLEAN
+                ) ON COMMIT DROP
+                """);
+        }
+
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        Copied copied = copyQuestions(file, pgConnection);
+        copyOptions(file, pgConnection, copied.duplicates());
+
+        try (Statement stmt = connection.createStatement()) {
+            // Rows that would break the CHECK constraints are skipped, not fatal. From here on
+            // staging_questions only holds the accepted questions: the statements below never
+            // touch the options of a rejected one, even if the bank already has its id
+            long rejected = stmt.executeUpdate("""
+                DELETE FROM staging_questions
+                WHERE coalesce(type, '') NOT IN ('multiple_choice','short_answer','buzzer')
+                   OR coalesce(difficulty, '') NOT IN ('easy','medium','hard')
+                   OR coalesce(text, '') = ''
+                """);
+            stmt.execute("ANALYZE staging_questions");
+            stmt.execute("ANALYZE staging_options");
+
+            // Questions without answers in the file get the text of their correct options:
+            // replies are graded against correct_answers, also for multiple choice
+            long imported = stmt.executeUpdate("""
+                INSERT INTO question_bank (external_id, type, difficulty, text, media_url, correct_answers)
+                SELECT q.external_id, q.type, q.difficulty, q.text, q.media_url,
+                       coalesce(nullif(q.correct_answers, '{}'), o.correct_answers, '{}')
+                FROM staging_questions q
+                LEFT JOIN (
+                    SELECT external_id, array_agg(text) AS correct_answers
+                    FROM staging_options
+                    WHERE is_correct
+                    GROUP BY external_id
+                ) o ON o.external_id = q.external_id
+                ON CONFLICT (external_id) DO UPDATE
+                SET type = EXCLUDED.type,
+                    difficulty = EXCLUDED.difficulty,
+                    text = EXCLUDED.text,
+                    media_url = EXCLUDED.media_url,
+                    correct_answers = EXCLUDED.correct_answers
+                """);
+
+            stmt.executeUpdate("""
+                DELETE FROM question_bank_options o
+                USING question_bank b
+                WHERE o.bank_question_id = b.bank_question_id
+                  AND b.external_id IN (SELECT external_id FROM staging_questions)
+                """);
+            long options = stmt.executeUpdate("""
+                INSERT INTO question_bank_options (bank_question_id, text, is_correct)
+                SELECT b.bank_question_id, s.text, s.is_correct
+                FROM staging_options s
+                JOIN staging_questions q ON q.external_id = s.external_id
+                JOIN question_bank b ON b.external_id = s.external_id
+                """);
+            return new ImportResult(copied.read(), imported, options, rejected + copied.duplicates().size());
+        }
+    }
+
+    private Copied copyQuestions(Path file, PGConnection connection) throws IOException, SQLException {
+        long count = 0;
+        Set<String> ids = new HashSet<>();
+        Set<Long> duplicates = new HashSet<>();
+        try (QuestionSource source = QuestionSource.open(file, objectMapper);
+             Writer out = copyWriter(connection, "staging_questions")) {
+            while (source.hasNext()) {
+                ImportedQuestion question = source.next();
+                count++;
+                String externalId = externalId(file, question, count);
+                if (!ids.add(externalId)) {
+                    log.debug("Skipping question {} of {}: id {} is repeated", count, file, externalId);
+                    duplicates.add(count);
+                    continue;
+                }
+                writeField(out, externalId);
+                out.write(',');
+                writeField(out, question.type());
+                out.write(',');
+                writeField(out, question.difficulty());
+                out.write(',');
+                writeField(out, question.text());
+                out.write(',');
+                writeField(out, question.mediaUrl());
+                out.write(',');
+                writeField(out, arrayLiteral(question.answers()));
+                out.write('\n');
+            }
+        }
+        return new Copied(count, duplicates);
+    }
+
+    /** Same positions as copyQuestions: the options of a skipped repeated id are skipped too. */
+    private void copyOptions(Path file, PGConnection connection, Set<Long> duplicates)
+            throws IOException, SQLException {
+        long count = 0;
+        try (QuestionSource source = QuestionSource.open(file, objectMapper);
+             Writer out = copyWriter(connection, "staging_options")) {
+            while (source.hasNext()) {
+                ImportedQuestion question = source.next();
+                count++;
+                if (question.options() == null || duplicates.contains(count)) {
+                    continue;
+                }
+                String externalId = externalId(file, question, count);
+                for (ImportedQuestion.Option option : question.options()) {
+                    if (option == null || option.text() == null) {
+                        continue; // text is NOT NULL: one such option would fail the whole import
+                    }
+                    writeField(out, externalId);
+                    out.write(',');
+                    writeField(out, option.text());
+                    out.write(',');
+                    out.write(option.correct() ? "t" : "f");
+                    out.write('\n');
+                }
+            }
+        }
+    }
+
+    private static Writer copyWriter(PGConnection connection, String table) throws SQLException {
+        PGCopyOutputStream copy = new PGCopyOutputStream(connection,
+                "COPY " + table + " FROM STDIN (FORMAT csv)", COPY_BUFFER_SIZE);
+        return new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8), COPY_BUFFER_SIZE);
+    }
+
+    /** Questions without an id are keyed by file name and position, which is the same in both passes. */
+    private static String externalId(Path file, ImportedQuestion question, long position) {
+        return question.id() != null ? question.id() : file.getFileName() + "#" + position;
+    }
+
+    /** CSV field for COPY: unquoted empty is NULL, anything else is quoted. */
+    private static void writeField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    /** PostgreSQL array literal: {"a","b \"c\""}. Null answers are left out. */
+    private static String arrayLiteral(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder("{");
+        for (String value : values) {
+            if (value == null) {
+                continue;
+            }
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append('"')
+              .append(value.replace("\\", "\\\\").replace("\"", "\\\""))
+              .append('"');
+        }
+        return sb.append('}').toString();
+    }
+}
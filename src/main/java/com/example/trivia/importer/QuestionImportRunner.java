@@ -0,0 +1,39 @@
+package com.example.trivia.importer;
+
+import com.example.trivia.selection.QuestionSelectionEngine;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Imports question files given on the command line before the app starts serving:
+ * {@code java -jar app.jar --import-questions=bank.jsonl[,more.csv]}
+ */
+@Component
+public class QuestionImportRunner implements ApplicationRunner {
+    private static final String OPTION = "import-questions";
+
+    private final QuestionBankImporter importer;
+    private final QuestionSelectionEngine questionSelection;
+
+    public QuestionImportRunner(QuestionBankImporter importer, QuestionSelectionEngine questionSelection) {
+        this.importer = importer;
+        this.questionSelection = questionSelection;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+        for (String value : args.getOptionValues(OPTION)) {
+            for (String file : value.split(",")) {
+                importer.importFile(Path.of(file.strip()));
+            }
+        }
+        questionSelection.reload();
+    }
+}
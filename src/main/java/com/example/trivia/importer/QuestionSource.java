@@ -0,0 +1,166 @@
+package com.example.trivia.importer;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams the questions of an import file one at a time, so memory use does
+ * not depend on the file size.
+ *
+ * JSONL: one object per line with the fields of {@link ImportedQuestion}.
+ * CSV: header {@code id,type,difficulty,text,media_url,correct_answers,options};
+ * answers and options are separated by {@code |} and correct options start with {@code *}.
+ */
+public interface QuestionSource extends Iterator<ImportedQuestion>, Closeable {
+
+    static QuestionSource open(Path file, ObjectMapper objectMapper) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return new Jsonl(objectMapper.readerFor(ImportedQuestion.class).readValues(reader));
+        }
+        if (name.endsWith(".csv")) {
+            return new Csv(reader);
+        }
+        reader.close();
+        throw new IllegalArgumentException("Unsupported import file (expected .jsonl or .csv): " + file);
+    }
+
+    final class Jsonl implements QuestionSource {
+        private final MappingIterator<ImportedQuestion> rows;
+
+        Jsonl(MappingIterator<ImportedQuestion> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return rows.hasNext();
+        }
+
+        @Override
+        public ImportedQuestion next() {
+            return rows.next();
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.close();
+        }
+    }
+
+    /** Minimal RFC 4180 reader: quoted fields may contain commas, quotes ("") and line breaks. */
+    final class Csv implements QuestionSource {
+        private final BufferedReader reader;
+        private List<String> pending;
+
+        Csv(BufferedReader reader) {
+            this.reader = reader;
+            readRecord(); // header
+            this.pending = readRecord();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pending != null;
+        }
+
+        @Override
+        public ImportedQuestion next() {
+            if (pending == null) {
+                throw new NoSuchElementException();
+            }
+            List<String> fields = pending;
+            pending = readRecord();
+            return toQuestion(fields);
+        }
+
+        private static ImportedQuestion toQuestion(List<String> fields) {
+            List<ImportedQuestion.Option> options = new ArrayList<>();
+            for (String option : split(field(fields, 6))) {
+                boolean correct = option.startsWith("*");
+                options.add(new ImportedQuestion.Option(correct ? option.substring(1) : option, correct));
+            }
+            return new ImportedQuestion(field(fields, 0), field(fields, 1), field(fields, 2),
+                    field(fields, 3), field(fields, 4), split(field(fields, 5)), options);
+        }
+
+        private static String field(List<String> fields, int index) {
+            if (index >= fields.size() || fields.get(index).isEmpty()) {
+                return null;
+            }
+            return fields.get(index);
+        }
+
+        private static List<String> split(String value) {
+            List<String> parts = new ArrayList<>();
+            if (value != null) {
+                for (String part : value.split("\\|")) {
+                    if (!part.isBlank()) {
+                        parts.add(part.strip());
+                    }
+                }
+            }
+            return parts;
+        }
+
+        private List<String> readRecord() {
+            try {
+                int c = reader.read();
+                if (c == -1) {
+                    return null;
+                }
+                List<String> fields = new ArrayList<>();
+                StringBuilder field = new StringBuilder();
+                boolean quoted = false;
+                while (c != -1) {
+                    if (quoted) {
+                        if (c == '"') {
+                            reader.mark(1);
+                            int next = reader.read();
+                            if (next == '"') {
+                                field.append('"');
+                            } else {
+                                quoted = false;
+                                reader.reset();
+                            }
+                        } else {
+                            field.append((char) c);
+                        }
+                    } else if (c == '"') {
+                        quoted = true;
+                    } else if (c == ',') {
+                        fields.add(field.toString());
+                        field.setLength(0);
+                    } else if (c == '\n') {
+                        break;
+                    } else if (c != '\r') {
+                        field.append((char) c);
+                    }
+                    c = reader.read();
+                }
+                fields.add(field.toString());
+                return fields;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
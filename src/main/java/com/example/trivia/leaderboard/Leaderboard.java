@@ -0,0 +1,60 @@
+package com.example.trivia.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Team ranking kept sorted as points come in: adding points moves one entry
+ * in a red-black tree (O(log n)) and the top K are the first K entries.
+ */
+final class Leaderboard {
+    record Entry(String teamId, int points) {}
+
+    // Most points first, ties broken by team id so the order is stable
+    private static final Comparator<Entry> RANKING = Comparator.comparingInt(Entry::points).reversed()
+            .thenComparing(Entry::teamId);
+
+    private final Map<String, Entry> byTeam = new HashMap<>();
+    private final TreeSet<Entry> ranking = new TreeSet<>(RANKING);
+    private final ReentrantLock lock = new ReentrantLock();
+
+    void add(String teamId, int points) {
+        lock.lock();
+        try {
+            Entry previous = byTeam.get(teamId);
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+            Entry entry = new Entry(teamId, (previous != null ? previous.points() : 0) + points);
+            byTeam.put(teamId, entry);
+            ranking.add(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<Entry> top(int limit) {
+        lock.lock();
+        try {
+            List<Entry> top = new ArrayList<>(Math.min(limit, ranking.size()));
+            for (Entry entry : ranking) {
+                if (top.size() == limit) {
+                    break;
+                }
+                top.add(entry);
+            }
+            return top;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<Entry> all() {
+        return top(Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.trivia.leaderboard;
+
+import com.example.trivia.ids.Ids;
+import com.example.trivia.model.Player;
+import com.example.trivia.model.TeamScore;
+import com.example.trivia.repository.PlayerRepository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live leaderboards per game and per round, updated on every graded answer
+ * instead of summing {@code responses} on each refresh. One point per
+ * correct answer, counting only each player's first answer per question, as
+ * RoundScoringService does. When a round ends its live points are replaced by the
+ * totals RoundScoringService wrote to {@code team_scores}, which only count
+ * each player's first answer per question.
+ *
+ * After a restart, a game's board is rebuilt from {@code team_scores}, so
+ * only the points of the round in progress are lost.
+ *
+ * Players' teams are read once per room at the start of every round (see
+ * {@link #warmRoom}) and kept while the players keep answering, so grading an
+ * answer never queries {@code players}.
+ */
+@Service
+public class LeaderboardService {
+    public record Standing(int rank, String teamId, int points) {}
+
+    private static final class GameBoards {
+        final Leaderboard game = new Leaderboard();
+        final Map<String, Leaderboard> rounds = new ConcurrentHashMap<>();
+        // "questionId:playerId" of the answers already counted, right or wrong
+        final Set<String> answered = ConcurrentHashMap.newKeySet();
+    }
+
+    private final PlayerRepository playerRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, GameBoards> boards;
+    // Player -> team ("" when the player has no team), refreshed by warmRoom
+    private final Cache<String, String> teamByPlayer;
+
+    public LeaderboardService(
+            PlayerRepository playerRepo,
+            JdbcTemplate jdbcTemplate,
+            @Value("${trivia.cache.ttl-minutes:120}") long ttlMinutes) {
+        this.playerRepo = playerRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.boards = Caffeine.newBuilder().expireAfterAccess(Duration.ofMinutes(ttlMinutes)).build();
+        this.teamByPlayer = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    /** Called for every graded answer; later answers of the player to the same question are ignored. */
+    public void recordAnswer(String gameId, String roundId, String questionId, String playerId, boolean correct) {
+        GameBoards gameBoards = boards(gameId);
+        if (!gameBoards.answered.add(questionId + ":" + playerId) || !correct) {
+            return;
+        }
+        Optional<String> teamId = teamOf(playerId);
+        if (teamId.isEmpty()) {
+            return; // Players without a team do not score
+        }
+        gameBoards.game.add(teamId.get(), 1);
+        gameBoards.rounds.computeIfAbsent(roundId, id -> new Leaderboard()).add(teamId.get(), 1);
+    }
+
+    /** Caches the team of every player of the room; team changes are picked up here, at round start. */
+    public void warmRoom(String roomId) {
+        for (Player player : Ids.parse(roomId).map(playerRepo::findByRoomId).orElse(List.of())) {
+            teamByPlayer.put(player.playerId().toString(), player.teamId() != null ? player.teamId().toString() : "");
+        }
+    }
+
+    public List<Standing> top(String gameId, int limit) {
+        return standings(boards(gameId).game.top(limit));
+    }
+
+    public List<Standing> topOfRound(String gameId, String roundId, int limit) {
+        Leaderboard round = boards(gameId).rounds.get(roundId);
+        return round == null ? List.of() : standings(round.top(limit));
+    }
+
+    /**
+     * Replaces the live points of a finished round with its scored totals
+     * (see RoundScoringService), adjusting the game board by the difference.
+     */
+    public void applyRoundScores(String gameId, String roundId, List<TeamScore> scores) {
+        GameBoards gameBoards = boards(gameId);
+        Leaderboard round = gameBoards.rounds.computeIfAbsent(roundId, id -> new Leaderboard());
+
+        Map<String, Integer> live = new HashMap<>();
+        for (Leaderboard.Entry entry : round.all()) {
+            live.put(entry.teamId(), entry.points());
+        }
+        for (TeamScore score : scores) {
+            String teamId = score.teamId().toString();
+            Integer livePoints = live.remove(teamId);
+            adjust(gameBoards, round, teamId, score.points() - (livePoints != null ? livePoints : 0));
+        }
+        // Live points of teams with no scored row
+        live.forEach((teamId, points) -> adjust(gameBoards, round, teamId, -points));
+    }
+
+    public void evictGame(String gameId) {
+        boards.invalidate(gameId);
+    }
+
+    private GameBoards boards(String gameId) {
+        GameBoards gameBoards = boards.getIfPresent(gameId);
+        if (gameBoards != null) {
+            return gameBoards;
+        }
+        // Rebuilt outside the cache's compute: it queries the database
+        GameBoards rebuilt = new GameBoards();
+        jdbcTemplate.query("""
+            SELECT ts.round_id, ts.team_id, SUM(ts.points) AS points
+            FROM team_scores ts
+            JOIN rounds r ON r.round_id = ts.round_id
+            WHERE r.game_id = ?::uuid
+              -- Skips the partitions from before the game
+              AND ts.round_ended_at >= (SELECT started_at FROM games WHERE game_id = ?::uuid)
+            GROUP BY ts.round_id, ts.team_id
+            """, rs -> {
+            String roundId = rs.getString("round_id");
+            String teamId = rs.getString("team_id");
+            int points = rs.getInt("points");
+            rebuilt.game.add(teamId, points);
+            rebuilt.rounds.computeIfAbsent(roundId, id -> new Leaderboard()).add(teamId, points);
+        }, gameId, gameId);
+        return boards.asMap().merge(gameId, rebuilt, (current, ignored) -> current);
+    }
+
+    private static void adjust(GameBoards gameBoards, Leaderboard round, String teamId, int delta) {
+        if (delta != 0) {
+            round.add(teamId, delta);
+            gameBoards.game.add(teamId, delta);
+        }
+    }
+
+    private Optional<String> teamOf(String playerId) {
+        String teamId = teamByPlayer.getIfPresent(playerId);
+        if (teamId == null) {
+            // Joined after the round started
+            teamId = Ids.parse(playerId).flatMap(playerRepo::findById)
+                    .map(Player::teamId)
+                    .map(UUID::toString)
+                    .orElse("");
+            teamByPlayer.put(playerId, teamId);
+        }
+        return teamId.isEmpty() ? Optional.empty() : Optional.of(teamId);
+    }
+
+    /** Competition ranking: tied teams share a rank and the next rank is skipped (1, 1, 3). */
+    private static List<Standing> standings(List<Leaderboard.Entry> entries) {
+        List<Standing> standings = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Leaderboard.Entry entry = entries.get(i);
+            int rank = i > 0 && entries.get(i - 1).points() == entry.points()
+                    ? standings.get(i - 1).rank()
+                    : i + 1;
+            standings.add(new Standing(rank, entry.teamId(), entry.points()));
+        }
+        return standings;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.trivia.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * A player's answer as the API shows it: a {@code responses} row, with the
+ * reply under {@code answer}. Written through AnswerIngestionService as a
+ * {@link Response}; {@code submittedAt} is null until then.
+ */
+@Table("responses")
+public record Answer(
+    @Id @Column("response_id") UUID answerId,
+    UUID questionId,
+    UUID playerId,
+    Timestamp submittedAt,
+    @Column("text_reply") String answer,
+    @Column("is_correct") Boolean correct
+) {}
\ No newline at end of file
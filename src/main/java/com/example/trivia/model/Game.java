@@ -1,11 +1,18 @@
 package com.example.trivia.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
 import java.sql.Timestamp;
 import java.util.UUID;
 
+@Table("games")
 public record Game(
-    UUID gameId,
+    @Id UUID gameId,
     UUID roomId,
-    Timestamp startedAt,
-    Timestamp endedAt
+    @JsonProperty("createdAt") Timestamp startedAt,
+    Timestamp endedAt,
+    UUID settingsId
 ) {}
\ No newline at end of file
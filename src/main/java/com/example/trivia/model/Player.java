@@ -1,11 +1,17 @@
 package com.example.trivia.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
 import java.util.UUID;
 
+@Table("players")
 public record Player(
-    UUID playerId,
+    @Id UUID playerId,
     UUID roomId,
     String username,
-    boolean isHost,
+    @JsonProperty("host") boolean isHost,
     UUID teamId
 ) {}
\ No newline at end of file
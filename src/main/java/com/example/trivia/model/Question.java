@@ -1,11 +1,17 @@
 package com.example.trivia.model;
 
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.util.List;
 import java.util.UUID;
 
+@Table("questions")
 public record Question(
-    UUID questionId,
+    @Id UUID questionId,
     UUID roundId,
     String type,
     String text,
-    String mediaUrl
+    String mediaUrl,
+    List<String> correctAnswers
 ) {}
\ No newline at end of file
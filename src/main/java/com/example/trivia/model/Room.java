@@ -1,10 +1,14 @@
 package com.example.trivia.model;
 
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
 import java.sql.Timestamp;
 import java.util.UUID;
 
+@Table("rooms")
 public record Room(
-    UUID roomId,
+    @Id UUID roomId,
     String slug,
     Timestamp createdAt,
     UUID settingsId
@@ -1,12 +1,18 @@
 package com.example.trivia.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
 import java.sql.Timestamp;
 import java.util.UUID;
 
+@Table("rounds")
 public record Round(
-    UUID roundId,
+    @Id UUID roundId,
     UUID gameId,
     int number,
-    Timestamp startedAt,
+    @JsonProperty("createdAt") Timestamp startedAt,
     Timestamp endedAt
 ) {}
\ No newline at end of file
@@ -1,12 +1,17 @@
 package com.example.trivia.model;
 
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
 import java.util.UUID;
 
+@Table("settings")
 public record Settings(
-    UUID settingsId,
+    @Id UUID settingsId,
     int rounds,
     int timePerRound,
     int questionsPerRound,
     String difficulty,
-    int maxPlayersPerTeam
+    int maxPlayersPerTeam,
+    int version
 ) {}
\ No newline at end of file
@@ -1,9 +1,13 @@
 package com.example.trivia.model;
 
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
 import java.util.UUID;
 
+@Table("teams")
 public record Team(
-    UUID teamId,
+    @Id UUID teamId,
     UUID roomId,
     String name
 ) {}
\ No newline at end of file
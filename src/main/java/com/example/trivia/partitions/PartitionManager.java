@@ -0,0 +1,234 @@
+package com.example.trivia.partitions;
+
+import com.example.trivia.config.BackgroundThreads;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the daily (UTC) partitions of {@code responses} and {@code team_scores}
+ * (see schema.sql): creates the ones for today and the next
+ * {@code precreateDays}, and detaches and drops those entirely older than
+ * {@code retentionDays}.
+ *
+ * Rows that landed in the DEFAULT partition (a day with no partition yet,
+ * e.g. after an outage or with a skewed clock) would make a plain
+ * {@code PARTITION OF} fail for that day from then on. So days that have rows
+ * there get their partition built aside, filled with those rows and attached
+ * in one transaction, and rows in the DEFAULT partition past the retention are
+ * deleted with the partitions of their days.
+ *
+ * Runs before the web server starts, so the first answers already have a
+ * partition, and then every {@code checkIntervalMinutes}. Every node runs it:
+ * each step is idempotent and a step that loses a race with another node just
+ * fails, is logged and is retried on the next run. DDL waits at most
+ * {@code lock_timeout} for the parent table's lock, so a slow run never
+ * stalls answer inserts for long.
+ */
+@Component
+public class PartitionManager {
+    private static final Logger log = LoggerFactory.getLogger(PartitionManager.class);
+
+    // Partitioned by day in schema.sql: table -> partition key
+    private static final Map<String, String> TABLES = Map.of(
+            "responses", "submitted_at",
+            "team_scores", "round_ended_at");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("'_p'uuuuMMdd");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactions;
+    private final int precreateDays;
+    private final int retentionDays;
+    private final long checkIntervalMinutes;
+    private final ScheduledExecutorService maintenance;
+
+    public PartitionManager(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactions,
+            BackgroundThreads backgroundThreads,
+            @Value("${trivia.partitions.precreate-days:7}") int precreateDays,
+            @Value("${trivia.partitions.retention-days:180}") int retentionDays,
+            @Value("${trivia.partitions.check-interval-minutes:60}") long checkIntervalMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactions = transactions;
+        this.precreateDays = precreateDays;
+        this.retentionDays = retentionDays;
+        this.checkIntervalMinutes = checkIntervalMinutes;
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(backgroundThreads.factory("partition-manager"));
+    }
+
+    @PostConstruct
+    public void start() {
+        maintainQuietly();
+        maintenance.scheduleWithFixedDelay(this::maintainQuietly, checkIntervalMinutes, checkIntervalMinutes,
+                TimeUnit.MINUTES);
+    }
+
+    /** One pass over both tables. A step that fails is logged and skipped. */
+    public void maintain() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate oldestKept = today.minusDays(retentionDays);
+        TABLES.forEach((table, key) -> {
+            List<LocalDate> existing;
+            Set<LocalDate> inDefault;
+            try {
+                existing = partitionDays(table);
+                inDefault = defaultDays(table, key);
+            } catch (DataAccessException e) {
+                log.error("Could not list the partitions of {}", table, e);
+                return;
+            }
+            Set<LocalDate> wanted = new TreeSet<>();
+            for (LocalDate day = today; !day.isAfter(today.plusDays(precreateDays)); day = day.plusDays(1)) {
+                wanted.add(day);
+            }
+            for (LocalDate day : inDefault) {
+                if (day.plusDays(1).isAfter(oldestKept)) {
+                    wanted.add(day);
+                }
+            }
+            for (LocalDate day : wanted) {
+                if (!existing.contains(day)) {
+                    create(table, key, day, inDefault.contains(day));
+                }
+            }
+            for (LocalDate day : existing) {
+                if (!day.plusDays(1).isAfter(oldestKept)) {
+                    drop(table, day);
+                }
+            }
+            if (inDefault.stream().anyMatch(day -> !day.plusDays(1).isAfter(oldestKept))) {
+                expireDefault(table, key, oldestKept);
+            }
+        });
+    }
+
+    private void maintainQuietly() {
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            log.error("Partition maintenance failed", e);
+        }
+    }
+
+    /**
+     * A plain {@code PARTITION OF} fails while the DEFAULT partition holds rows
+     * of that day: then the partition is created standalone, the rows are moved
+     * into it and it is attached, all or nothing.
+     */
+    private void create(String table, String key, LocalDate day, boolean rowsInDefault) {
+        String partition = partition(table, day);
+        String bounds = "FROM ('%s 00:00:00+00') TO ('%s 00:00:00+00')".formatted(day, day.plusDays(1));
+        if (!rowsInDefault) {
+            if (ddl("CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES %s".formatted(partition, table, bounds))) {
+                log.info("Created partition {}", partition);
+            }
+            return;
+        }
+        String inDay = "%s >= '%s 00:00:00+00' AND %s < '%s 00:00:00+00'".formatted(key, day, key, day.plusDays(1));
+        if (ddl("CREATE TABLE %s (LIKE %s INCLUDING DEFAULTS INCLUDING CONSTRAINTS)".formatted(partition, table),
+                "WITH moved AS (DELETE FROM %s_default WHERE %s RETURNING *) INSERT INTO %s SELECT * FROM moved"
+                        .formatted(table, inDay, partition),
+                "ALTER TABLE %s ATTACH PARTITION %s FOR VALUES %s".formatted(table, partition, bounds))) {
+            log.warn("Created partition {} and moved into it the rows of that day found in {}_default",
+                    partition, table);
+        }
+    }
+
+    private void drop(String table, LocalDate day) {
+        String partition = partition(table, day);
+        if (ddl("ALTER TABLE " + table + " DETACH PARTITION " + partition, "DROP TABLE " + partition)) {
+            log.info("Dropped expired partition {}", partition);
+        }
+    }
+
+    /** Rows in the DEFAULT partition from before the retention go the way their partitions went. */
+    private void expireDefault(String table, String key, LocalDate oldestKept) {
+        if (ddl("DELETE FROM %s_default WHERE %s < '%s 00:00:00+00'".formatted(table, key, oldestKept))) {
+            log.info("Deleted expired rows from {}_default", table);
+        }
+    }
+
+    /** Runs the statements in one transaction; false (and logged) if it failed. */
+    private boolean ddl(String... statements) {
+        try {
+            transactions.executeWithoutResult(status -> {
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+                for (String statement : statements) {
+                    jdbcTemplate.execute(statement);
+                }
+            });
+            return true;
+        } catch (DataAccessException | TransactionException e) {
+            // E.g. rows for that day already in the DEFAULT partition, or another node got there first
+            log.warn("Partition maintenance failed: {}", String.join("; ", statements), e);
+            return false;
+        }
+    }
+
+    /** UTC days of the rows in the table's DEFAULT partition, which should be empty. */
+    private Set<LocalDate> defaultDays(String table, String key) {
+        Set<LocalDate> days = new TreeSet<>();
+        String sql = "SELECT DISTINCT (%s AT TIME ZONE 'UTC')::date AS day FROM %s_default".formatted(key, table);
+        jdbcTemplate.query(sql, rs -> {
+            days.add(rs.getObject("day", LocalDate.class));
+        });
+        if (!days.isEmpty()) {
+            log.warn("{}_default holds rows of {}", table, days);
+        }
+        return days;
+    }
+
+    /** Days of the table's daily partitions; the DEFAULT partition is not listed. */
+    private List<LocalDate> partitionDays(String table) {
+        List<LocalDate> days = new ArrayList<>();
+        jdbcTemplate.query("""
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = ?::regclass
+            """, rs -> {
+            String name = rs.getString("relname");
+            if (name.startsWith(table + "_p")) {
+                try {
+                    days.add(LocalDate.parse(name.substring(table.length()), SUFFIX));
+                } catch (DateTimeParseException e) {
+                    // Not one of ours
+                }
+            }
+        }, table);
+        return days;
+    }
+
+    private static String partition(String table, LocalDate day) {
+        return table + SUFFIX.format(day);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        maintenance.shutdown();
+        maintenance.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
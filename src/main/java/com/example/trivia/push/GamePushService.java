@@ -0,0 +1,181 @@
+package com.example.trivia.push;
+
+import com.example.trivia.cache.GameCache;
+import com.example.trivia.cache.QuestionPayloads;
+import com.example.trivia.cluster.ClusterEvents;
+import com.example.trivia.model.Game;
+import com.example.trivia.model.Round;
+import com.example.trivia.scoring.RoundResultsService;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes round lifecycle events to the WebSocket clients of a game, so they do
+ * not have to poll getRoundQuestions/getAnswer around every round boundary.
+ *
+ * Each event is built and serialized once per game, then sent to every
+ * connected session of that game. Questions and results come from the same
+ * caches as getRoundQuestions and getRoundResults (QuestionPayloads,
+ * RoundResultsService), so an event costs no query of its own.
+ *
+ * Rounds are timed by the RoundScheduler of the node that owns the room.
+ * Their events, and player joins, go through {@link ClusterEvents}, so
+ * clients connected to any node receive them.
+ */
+@Service
+public class GamePushService {
+    private static final Logger log = LoggerFactory.getLogger(GamePushService.class);
+
+    private final QuestionPayloads questionPayloads;
+    private final RoundResultsService roundResults;
+    private final GameCache gameCache;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Set<WebSocketSession>> sessionsByGame = new ConcurrentHashMap<>();
+    private final Map<String, String> roomByGame = new ConcurrentHashMap<>();
+
+    public GamePushService(
+            QuestionPayloads questionPayloads,
+            RoundResultsService roundResults,
+            GameCache gameCache,
+            ClusterEvents clusterEvents,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.questionPayloads = questionPayloads;
+        this.roundResults = roundResults;
+        this.gameCache = gameCache;
+        this.objectMapper = objectMapper;
+
+        clusterEvents.subscribe("round_started", this::onRoundStarted);
+        clusterEvents.subscribe("round_ended", this::onRoundEnded);
+        clusterEvents.subscribe("player_joined", this::onPlayerJoined);
+
+        Gauge.builder("trivia.websocket.sessions", this, GamePushService::sessionCount)
+                .description("Game WebSocket sessions connected to this node")
+                .register(meterRegistry);
+    }
+
+    int sessionCount() {
+        int count = 0;
+        for (Set<WebSocketSession> sessions : sessionsByGame.values()) {
+            count += sessions.size();
+        }
+        return count;
+    }
+
+    public void register(Game game, WebSocketSession session) {
+        roomByGame.put(game.gameId().toString(), game.roomId().toString());
+        sessionsByGame.computeIfAbsent(game.gameId().toString(), id -> ConcurrentHashMap.newKeySet()).add(session);
+    }
+
+    public void unregister(String gameId, WebSocketSession session) {
+        sessionsByGame.computeIfPresent(gameId, (id, sessions) -> {
+            sessions.remove(session);
+            if (sessions.isEmpty()) {
+                roomByGame.remove(gameId);
+                return null;
+            }
+            return sessions;
+        });
+    }
+
+    public void cancelGame(String gameId) {
+        sessionsByGame.remove(gameId);
+        roomByGame.remove(gameId);
+    }
+
+    private void onRoundStarted(ClusterEvents.Event event) {
+        String gameId = (String) event.data().get("gameId");
+        if (!sessionsByGame.containsKey(gameId)) {
+            return; // Nobody listening: clients will fall back to polling
+        }
+        gameCache.round((String) event.data().get("roundId"))
+                .ifPresent(round -> broadcastRoundStarted(gameId, round));
+    }
+
+    private void onRoundEnded(ClusterEvents.Event event) {
+        String gameId = (String) event.data().get("gameId");
+        if (!sessionsByGame.containsKey(gameId)) {
+            return;
+        }
+        gameCache.round((String) event.data().get("roundId"))
+                .ifPresent(round -> broadcastRoundEnded(gameId, round, event.data().get("leaderboard")));
+    }
+
+    private void onPlayerJoined(ClusterEvents.Event event) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", "player_joined");
+        message.putAll(event.data());
+        roomByGame.forEach((gameId, roomId) -> {
+            if (roomId.equals(event.roomId())) {
+                broadcast(gameId, message);
+            }
+        });
+    }
+
+    private void broadcastRoundStarted(String gameId, Round round) {
+        // Already rendered without the correct answers
+        byte[] questions = questionPayloads.payload(round.roundId().toString()).json();
+
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", "round_started");
+        event.put("round", round);
+        event.put("questions", new RawValue(new String(questions, StandardCharsets.UTF_8)));
+        broadcast(gameId, event);
+    }
+
+    private void broadcastRoundEnded(String gameId, Round round, Object leaderboardTop) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", "round_ended");
+        event.put("round", round);
+        // Each player's first answer per question, as scored
+        event.put("results", roundResults.results(gameId, round.roundId().toString(), round.endedAt().toInstant()));
+        event.put("leaderboard", leaderboardTop);
+        broadcast(gameId, event);
+    }
+
+    /** Sends a reply (e.g. an answer acknowledgement) to a single session. */
+    void send(WebSocketSession session, Map<String, Object> message) {
+        try {
+            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
+        } catch (IOException e) {
+            log.debug("Could not send to WebSocket session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    private void broadcast(String gameId, Map<String, Object> event) {
+        TextMessage message;
+        try {
+            message = new TextMessage(objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize {} event for game {}", event.get("type"), gameId, e);
+            return;
+        }
+
+        for (WebSocketSession session : sessionsByGame.getOrDefault(gameId, Set.of())) {
+            try {
+                session.sendMessage(message);
+            } catch (IOException e) {
+                log.debug("Could not send to WebSocket session {}: {}", session.getId(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.trivia.push;
+
+import com.example.trivia.auth.PlayerAuthenticator;
+import com.example.trivia.auth.PlayerToken;
+import com.example.trivia.cache.GameCache;
+import com.example.trivia.model.Game;
+import com.example.trivia.service.AnswerService;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * WebSocket endpoint {@code /games/{gameId}/ws}.
+ *
+ * Server to client: {@code round_started} (round + questions without correct
+ * answers), {@code round_ended} (round + results, see RoundResults, + leaderboard),
+ * {@code player_joined}, {@code answer_ack} and {@code error} (a message that
+ * could not be read; the session stays open).
+ * Client to server: {@code {"type":"answer","roundId":..,"questionId":..,"answer":..}},
+ * handled exactly like the REST submitAnswer. The player comes from the token
+ * verified at handshake time ({@code ?token=} or {@code Authorization}), or
+ * from the HTTP session copied then, as in the controllers.
+ */
+@Component
+public class GameSocketHandler extends TextWebSocketHandler {
+    static final String GAME_ID = "gameId";
+    static final String PLAYER_TOKEN = "playerToken";
+    private static final String OUTBOUND = "outbound";
+    // Slow clients must not block the broadcast to the rest of the room
+    private static final int SEND_TIME_LIMIT_MS = 5_000;
+    private static final int BUFFER_SIZE_LIMIT = 512 * 1024;
+
+    private final GamePushService gamePush;
+    private final AnswerService answerService;
+    private final GameCache gameCache;
+    private final PlayerAuthenticator playerAuth;
+    private final ObjectMapper objectMapper;
+
+    public GameSocketHandler(GamePushService gamePush, AnswerService answerService, GameCache gameCache,
+            PlayerAuthenticator playerAuth, ObjectMapper objectMapper) {
+        this.gamePush = gamePush;
+        this.answerService = answerService;
+        this.gameCache = gameCache;
+        this.playerAuth = playerAuth;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        String gameId = gameId(session);
+        Optional<Game> game = gameId != null ? gameCache.game(gameId) : Optional.empty();
+        if (game.isEmpty()) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Game not found"));
+            return;
+        }
+
+        WebSocketSession outbound = new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, BUFFER_SIZE_LIMIT);
+        session.getAttributes().put(OUTBOUND, outbound);
+        gamePush.register(game.get(), outbound);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        Map<String, Object> body;
+        try {
+            body = objectMapper.readValue(message.getPayload(), new TypeReference<>() {});
+        } catch (JsonProcessingException e) {
+            sendError(session, "Malformed message");
+            return;
+        }
+        if (!"answer".equals(body.get("type"))) {
+            return;
+        }
+        if (!(body.get("roundId") instanceof String) || !(body.get("questionId") instanceof String)
+                || (body.get("answer") != null && !(body.get("answer") instanceof String))) {
+            sendError(session, "Expected string roundId, questionId and answer");
+            return;
+        }
+
+        String gameId = gameId(session);
+        String roundId = (String) body.get("roundId");
+        String questionId = (String) body.get("questionId");
+        Optional<Game> game = gameCache.game(gameId);
+        PlayerToken player = game.map(g -> playerAuth.authenticate(
+                (PlayerToken) session.getAttributes().get(PLAYER_TOKEN), session.getAttributes(), g.roomId().toString()))
+                .orElse(null);
+        String playerId = player != null ? player.playerId() : null;
+
+        AnswerService.SubmitResult result = answerService.submit(gameId, roundId, questionId, playerId,
+                (String) body.get("answer"), player);
+
+        Map<String, Object> ack = new LinkedHashMap<>();
+        ack.put("type", "answer_ack");
+        ack.put("roundId", roundId);
+        ack.put("questionId", questionId);
+        ack.put("status", result.name().toLowerCase(Locale.ROOT));
+        gamePush.send((WebSocketSession) session.getAttributes().get(OUTBOUND), ack);
+    }
+
+    private void sendError(WebSocketSession session, String reason) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("type", "error");
+        error.put("message", reason);
+        gamePush.send((WebSocketSession) session.getAttributes().get(OUTBOUND), error);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Object outbound = session.getAttributes().get(OUTBOUND);
+        if (outbound != null) {
+            gamePush.unregister(gameId(session), (WebSocketSession) outbound);
+        }
+    }
+
+    private static String gameId(WebSocketSession session) {
+        return (String) session.getAttributes().get(GAME_ID);
+    }
+}
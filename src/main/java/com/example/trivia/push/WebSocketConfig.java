@@ -0,0 +1,67 @@
+package com.example.trivia.push;
+
+import com.example.trivia.auth.PlayerAuthenticator;
+import com.example.trivia.auth.PlayerToken;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.support.HttpSessionHandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+    private final GameSocketHandler gameSocketHandler;
+    private final PlayerAuthenticator playerAuth;
+
+    public WebSocketConfig(GameSocketHandler gameSocketHandler, PlayerAuthenticator playerAuth) {
+        this.gameSocketHandler = gameSocketHandler;
+        this.playerAuth = playerAuth;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(gameSocketHandler, "/games/*/ws")
+                .addInterceptors(new GameHandshakeInterceptor(playerAuth));
+    }
+
+    /**
+     * Copies the gameId from the path, the verified player token and the HTTP
+     * session (players per room) into the WebSocket session. Browsers cannot set
+     * headers on a WebSocket, so the token may also come as {@code ?token=}.
+     */
+    private static class GameHandshakeInterceptor extends HttpSessionHandshakeInterceptor {
+        private final PlayerAuthenticator playerAuth;
+
+        GameHandshakeInterceptor(PlayerAuthenticator playerAuth) {
+            this.playerAuth = playerAuth;
+        }
+
+        @Override
+        public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                WebSocketHandler wsHandler, Map<String, Object> attributes) throws Exception {
+            String[] segments = request.getURI().getPath().split("/");
+            // /games/{gameId}/ws
+            if (segments.length >= 3) {
+                attributes.put(GameSocketHandler.GAME_ID, segments[segments.length - 2]);
+            }
+
+            String token = PlayerAuthenticator.bearerToken(request.getHeaders().getFirst("Authorization"));
+            if (token == null) {
+                token = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("token");
+            }
+            PlayerToken player = playerAuth.verify(token);
+            if (player != null) {
+                attributes.put(GameSocketHandler.PLAYER_TOKEN, player);
+            }
+            return super.beforeHandshake(request, response, wsHandler, attributes);
+        }
+    }
+}
@@ -5,9 +5,11 @@ import org.springframework.data.repository.CrudRepository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
-public interface AnswerRepository extends CrudRepository<Answer, String> {
-	Optional<Answer> findByQuestionIdAndPlayerId(String questionId, String playerId);
+public interface AnswerRepository extends CrudRepository<Answer, UUID> {
+	/** The player's first answer, the one that scores; later ones are ignored. */
+	Optional<Answer> findFirstByQuestionIdAndPlayerIdOrderBySubmittedAt(UUID questionId, UUID playerId);
 
-	List<Answer> findByQuestionId(String questionId);
+	List<Answer> findByQuestionId(UUID questionId);
 }
@@ -3,5 +3,7 @@ package com.example.trivia.repository;
 import com.example.trivia.model.Game;
 import org.springframework.data.repository.CrudRepository;
 
-public interface GameRepository extends CrudRepository<Game, String> {
+import java.util.UUID;
+
+public interface GameRepository extends CrudRepository<Game, UUID> {
 }
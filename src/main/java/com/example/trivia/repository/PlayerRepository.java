@@ -4,9 +4,10 @@ import com.example.trivia.model.Player;
 import org.springframework.data.repository.CrudRepository;
 
 import java.util.List;
+import java.util.UUID;
 
-public interface PlayerRepository extends CrudRepository<Player, String> {
-	List<Player> findByRoomId(String roomId);
+public interface PlayerRepository extends CrudRepository<Player, UUID> {
+	List<Player> findByRoomId(UUID roomId);
 
-	List<Player> findByTeamId(String teamId);
+	List<Player> findByTeamId(UUID teamId);
 }
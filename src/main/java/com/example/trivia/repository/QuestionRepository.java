@@ -4,7 +4,8 @@ import com.example.trivia.model.Question;
 import org.springframework.data.repository.CrudRepository;
 
 import java.util.List;
+import java.util.UUID;
 
-public interface QuestionRepository extends CrudRepository<Question, String> {
-	List<Question> findByRoundId(String roundId);
+public interface QuestionRepository extends CrudRepository<Question, UUID> {
+	List<Question> findByRoundId(UUID roundId);
 }
@@ -4,5 +4,7 @@ import com.example.trivia.model.Room;
 
 import org.springframework.data.repository.CrudRepository;
 
-public interface RoomRepository extends CrudRepository<Room, String> {
+import java.util.UUID;
+
+public interface RoomRepository extends CrudRepository<Room, UUID> {
 }
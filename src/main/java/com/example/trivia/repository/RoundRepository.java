@@ -4,7 +4,8 @@ import com.example.trivia.model.Round;
 import org.springframework.data.repository.CrudRepository;
 
 import java.util.List;
+import java.util.UUID;
 
-public interface RoundRepository extends CrudRepository<Round, String> {
-	List<Round> findByGameId(String gameId);
+public interface RoundRepository extends CrudRepository<Round, UUID> {
+	List<Round> findByGameId(UUID gameId);
 }
@@ -3,5 +3,7 @@ package com.example.trivia.repository;
 import com.example.trivia.model.Settings;
 import org.springframework.data.repository.CrudRepository;
 
-public interface SettingsRepository extends CrudRepository<Settings, String> {
+import java.util.UUID;
+
+public interface SettingsRepository extends CrudRepository<Settings, UUID> {
 }
@@ -4,7 +4,8 @@ import com.example.trivia.model.Team;
 import org.springframework.data.repository.CrudRepository;
 
 import java.util.List;
+import java.util.UUID;
 
-public interface TeamRepository extends CrudRepository<Team, String> {
-	List<Team> findByRoomId(String roomId);
+public interface TeamRepository extends CrudRepository<Team, UUID> {
+	List<Team> findByRoomId(UUID roomId);
 }
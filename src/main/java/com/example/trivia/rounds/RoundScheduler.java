@@ -0,0 +1,250 @@
+package com.example.trivia.rounds;
+
+import com.example.trivia.cache.GameCache;
+import com.example.trivia.cache.QuestionPayloads;
+import com.example.trivia.cluster.ClusterEvents;
+import com.example.trivia.cluster.RoomRing;
+import com.example.trivia.config.BackgroundThreads;
+import com.example.trivia.dao.RowMappers;
+import com.example.trivia.leaderboard.LeaderboardService;
+import com.example.trivia.model.Round;
+import com.example.trivia.model.TeamScore;
+import com.example.trivia.scoring.RoundResultsService;
+import com.example.trivia.scoring.RoundScoringService;
+import com.example.trivia.service.AnswerIngestionService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires the start and end of every round of the games owned by this node on a
+ * {@link TimingWheel}, instead of leaving round boundaries to be noticed by the
+ * next request.
+ *
+ * At a round's start its questions and the room's players are cached for
+ * grading (see GameCache, LeaderboardService).
+ * At a round's end the buffered answers are flushed, the round is scored
+ * into {@code team_scores} (see RoundScoringService), its results start
+ * loading (see RoundResultsService) and {@code round_ended} is published
+ * (see GamePushService). After the last round the game's rendered questions
+ * are dropped (see QuestionPayloads).
+ * Timers only live in memory: on startup the rounds still running are read
+ * back from {@code rounds} and scheduled again.
+ *
+ * The games, rooms and rounds it is timing are exported as the
+ * {@code trivia.games.active}, {@code trivia.rooms.active} and
+ * {@code trivia.rounds.active} gauges.
+ */
+@Service
+public class RoundScheduler {
+    private static final Logger log = LoggerFactory.getLogger(RoundScheduler.class);
+
+    private final AnswerIngestionService answerIngestion;
+    private final RoundScoringService roundScoring;
+    private final RoundResultsService roundResults;
+    private final QuestionPayloads questionPayloads;
+    private final GameCache gameCache;
+    private final LeaderboardService leaderboard;
+    private final ClusterEvents clusterEvents;
+    private final RoomRing roomRing;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService roundEvents;
+    private final TimingWheel wheel;
+    private final Map<String, List<TimingWheel.Timeout>> timersByGame = new ConcurrentHashMap<>();
+    private final Map<String, String> roomByGame = new ConcurrentHashMap<>();
+    // Round -> game, for the rounds between their start and end timers
+    private final Map<String, String> runningRounds = new ConcurrentHashMap<>();
+
+    public RoundScheduler(
+            AnswerIngestionService answerIngestion,
+            RoundScoringService roundScoring,
+            RoundResultsService roundResults,
+            QuestionPayloads questionPayloads,
+            GameCache gameCache,
+            LeaderboardService leaderboard,
+            ClusterEvents clusterEvents,
+            RoomRing roomRing,
+            JdbcTemplate jdbcTemplate,
+            BackgroundThreads backgroundThreads,
+            MeterRegistry meterRegistry,
+            @Value("${trivia.rounds.tick-ms:100}") long tickMs,
+            @Value("${trivia.rounds.wheel-size:1024}") int wheelSize) {
+        this.answerIngestion = answerIngestion;
+        this.roundScoring = roundScoring;
+        this.roundResults = roundResults;
+        this.questionPayloads = questionPayloads;
+        this.gameCache = gameCache;
+        this.leaderboard = leaderboard;
+        this.clusterEvents = clusterEvents;
+        this.roomRing = roomRing;
+        this.jdbcTemplate = jdbcTemplate;
+        this.roundEvents = backgroundThreads.executor("round-events", 4);
+        this.wheel = new TimingWheel(Duration.ofMillis(tickMs), wheelSize, roundEvents,
+                backgroundThreads.factory("round-wheel"));
+
+        Gauge.builder("trivia.games.active", timersByGame, Map::size)
+                .description("Games with rounds timed by this node")
+                .register(meterRegistry);
+        Gauge.builder("trivia.rooms.active", roomByGame, rooms -> new HashSet<>(rooms.values()).size())
+                .description("Rooms with a game timed by this node")
+                .register(meterRegistry);
+        Gauge.builder("trivia.rounds.active", runningRounds, Map::size)
+                .description("Rounds started and not ended yet")
+                .register(meterRegistry);
+    }
+
+    /** Schedules the start and end of every round of a new game, in round order. */
+    public void schedule(String gameId, String roomId, List<Round> rounds) {
+        schedule(gameId, roomId, rounds, true);
+    }
+
+    public void cancel(String gameId) {
+        List<TimingWheel.Timeout> timers = timersByGame.remove(gameId);
+        if (timers != null) {
+            timers.forEach(TimingWheel.Timeout::cancel);
+        }
+        roomByGame.remove(gameId);
+        runningRounds.values().removeIf(gameId::equals);
+    }
+
+    /** Timers not fired yet, over all games. */
+    public int pendingTimers() {
+        return wheel.pending();
+    }
+
+    /** Schedules again the rounds that had not ended when this node stopped. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rehydrate() {
+        Map<String, List<Round>> roundsByGame = new LinkedHashMap<>();
+        Map<String, String> roomByGame = new HashMap<>();
+        // Every round of those games is needed to know which one is the last
+        jdbcTemplate.query("""
+            SELECT r.round_id, r.game_id, r.number, r.started_at, r.ended_at, g.room_id
+            FROM rounds r
+            JOIN games g ON g.game_id = r.game_id
+            WHERE r.game_id IN (SELECT game_id FROM rounds WHERE ended_at > now())
+            ORDER BY r.game_id, r.number
+            """, rs -> {
+            String roomId = rs.getString("room_id");
+            if (!roomRing.isLocal(roomId)) {
+                return; // Timed by the node that owns the room
+            }
+            Round round = RowMappers.ROUND.mapRow(rs, 0);
+            String gameId = round.gameId().toString();
+            roundsByGame.computeIfAbsent(gameId, id -> new ArrayList<>()).add(round);
+            roomByGame.put(gameId, roomId);
+        });
+
+        // Rounds already running had their start pushed before the restart
+        roundsByGame.forEach((gameId, rounds) -> schedule(gameId, roomByGame.get(gameId), rounds, false));
+        log.info("Rescheduled {} active games ({} timers)", roundsByGame.size(), wheel.pending());
+    }
+
+    /** Rounds already over are skipped; a start already past fires right away only if {@code startPast}. */
+    private void schedule(String gameId, String roomId, List<Round> rounds, boolean startPast) {
+        Instant now = Instant.now();
+        List<TimingWheel.Timeout> timers = new ArrayList<>(rounds.size() * 2);
+        List<String> roundIds = rounds.stream().map(round -> round.roundId().toString()).toList();
+        for (int i = 0; i < rounds.size(); i++) {
+            Round round = rounds.get(i);
+            boolean lastRound = i == rounds.size() - 1;
+            Instant startsAt = round.startedAt().toInstant();
+            Instant endsAt = round.endedAt().toInstant();
+            if (!endsAt.isAfter(now)) {
+                continue;
+            }
+            if (startPast || startsAt.isAfter(now)) {
+                timers.add(wheel.schedule(startsAt, () -> roundStarted(roomId, round)));
+            } else {
+                runningRounds.put(roundIds.get(i), gameId);
+            }
+            timers.add(wheel.schedule(endsAt, () -> roundEnded(roomId, round, lastRound, roundIds)));
+        }
+        timersByGame.put(gameId, timers);
+        roomByGame.put(gameId, roomId);
+    }
+
+    private void roundStarted(String roomId, Round round) {
+        String gameId = round.gameId().toString();
+        String roundId = round.roundId().toString();
+        runningRounds.put(roundId, gameId);
+        try {
+            // Answers come here (the room's owner), by REST or WebSocket: grade them without the database
+            gameCache.warmRound(roundId);
+            leaderboard.warmRoom(roomId);
+        } catch (DataAccessException e) {
+            log.warn("Could not warm round {} of game {}", roundId, gameId, e);
+        }
+        clusterEvents.publish("round_started", roomId, Map.of("gameId", gameId, "roundId", roundId));
+    }
+
+    private void roundEnded(String roomId, Round round, boolean lastRound, List<String> gameRoundIds) {
+        String gameId = round.gameId().toString();
+        String roundId = round.roundId().toString();
+        runningRounds.remove(roundId);
+        if (lastRound) {
+            timersByGame.remove(gameId);
+            roomByGame.remove(gameId);
+            questionPayloads.evictRounds(gameRoundIds);
+        }
+        // Round is over: buffered answers must be visible, on every node. Scoring waits
+        // for the answers still on their way in without holding a round-events thread
+        answerIngestion.closeRound(roundId, round.endedAt().toInstant())
+                .whenCompleteAsync((closed, e) -> {
+                    if (e != null) {
+                        log.error("Could not write the answers of round {} of game {}", roundId, gameId, e);
+                    }
+                    roundClosed(roomId, round);
+                }, roundEvents);
+    }
+
+    private void roundClosed(String roomId, Round round) {
+        String gameId = round.gameId().toString();
+        String roundId = round.roundId().toString();
+        try {
+            List<TeamScore> scores = roundScoring.scoreRound(roundId);
+            leaderboard.applyRoundScores(gameId, roundId, scores);
+        } catch (DataAccessException e) {
+            // Still announce the end of the round; the live leaderboard stands in for the scores
+            log.error("Could not score round {} of game {}", roundId, gameId, e);
+        }
+        roundResults.warm(gameId, roundId, round.endedAt().toInstant()); // Ready before the clients ask for them
+
+        // The leaderboard only lives on this node: it travels in the event
+        clusterEvents.publish("round_ended", roomId, Map.of(
+                "gameId", gameId,
+                "roundId", roundId,
+                "leaderboard", leaderboard.top(gameId, 10)));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        wheel.close();
+        roundEvents.shutdown();
+        roundEvents.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.trivia.rounds;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel: a ring of buckets, one per tick, each holding a linked
+ * list of timers. Scheduling and cancelling are O(1) lock-free queue offers;
+ * a single worker thread moves new timers into their bucket and, every tick,
+ * fires the due timers of the current bucket on {@code executor}. A timer
+ * further away than one turn of the wheel waits in its bucket for
+ * {@code remainingRounds} more turns.
+ *
+ * Timers fire up to one tick late, never early. Cost per timer is one small
+ * object, whatever the number of pending timers, so tens of thousands of
+ * rounds per node are cheap; a {@code ScheduledThreadPoolExecutor} would keep
+ * them all in an O(log n) heap instead.
+ */
+final class TimingWheel implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(TimingWheel.class);
+    // Bounds the work done per tick when a burst of timers is scheduled at once
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    interface Timeout {
+        /** Returns false if the timer already fired or was cancelled. */
+        boolean cancel();
+    }
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final class Timer implements Timeout {
+        final Runnable task;
+        final long deadline; // Nanos since the wheel started
+        final AtomicInteger state = new AtomicInteger(PENDING);
+        long remainingRounds;
+        Bucket bucket;
+        Timer prev;
+        Timer next;
+
+        Timer(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            cancelled.add(this); // Unlinked by the worker, which owns the buckets
+            return true;
+        }
+    }
+
+    /** Doubly-linked list of timers; only touched by the worker thread. */
+    private static final class Bucket {
+        Timer head;
+        Timer tail;
+
+        void add(Timer timer) {
+            timer.bucket = this;
+            if (head == null) {
+                head = tail = timer;
+            } else {
+                tail.next = timer;
+                timer.prev = tail;
+                tail = timer;
+            }
+        }
+
+        Timer remove(Timer timer) {
+            Timer next = timer.next;
+            if (timer.prev != null) {
+                timer.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timer.prev;
+            }
+            if (timer == head) {
+                head = next;
+            }
+            if (timer == tail) {
+                tail = timer.prev;
+            }
+            timer.prev = timer.next = null;
+            timer.bucket = null;
+            return next;
+        }
+    }
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor executor;
+    private final Queue<Timer> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Timer> cancelled = new ConcurrentLinkedQueue<>();
+    private final long startTime = System.nanoTime();
+    private final Instant startInstant = Instant.now();
+    private final Thread worker;
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile boolean running = true;
+    private long tick; // Worker thread only
+
+    /**
+     * @param wheelSize buckets, rounded up to a power of two
+     * @param executor runs the expired timers' tasks, so slow tasks never delay the wheel
+     */
+    TimingWheel(Duration tick, int wheelSize, Executor executor, ThreadFactory workerFactory) {
+        this.tickNanos = tick.toNanos();
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.executor = executor;
+        this.worker = workerFactory.newThread(this::run);
+        this.worker.start();
+    }
+
+    /** Runs {@code task} at {@code at}, or on the next tick if that is already past. */
+    Timeout schedule(Instant at, Runnable task) {
+        long deadline = Math.max(0, Duration.between(startInstant, at).toNanos());
+        Timer timer = new Timer(task, deadline);
+        pending.incrementAndGet();
+        added.add(timer);
+        return timer;
+    }
+
+    /** Timers scheduled and neither fired nor cancelled yet. */
+    int pending() {
+        return pending.get();
+    }
+
+    private void run() {
+        while (running) {
+            waitForNextTick();
+            removeCancelled();
+            transferAdded();
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        long sleep;
+        while (running && (sleep = deadline - (System.nanoTime() - startTime)) > 0) {
+            LockSupport.parkNanos(this, sleep);
+        }
+    }
+
+    private void removeCancelled() {
+        Timer timer;
+        while ((timer = cancelled.poll()) != null) {
+            if (timer.bucket != null) {
+                timer.bucket.remove(timer);
+            }
+            pending.decrementAndGet();
+        }
+    }
+
+    private void transferAdded() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timer timer = added.poll();
+            if (timer == null) {
+                return;
+            }
+            if (timer.state.get() == CANCELLED) {
+                continue; // Counted when removeCancelled sees it
+            }
+            long due = timer.deadline / tickNanos;
+            timer.remainingRounds = (due - tick) / wheel.length;
+            // Already due: the current bucket, expired right away
+            long slot = Math.max(due, tick);
+            wheel[(int) (slot & mask)].add(timer);
+        }
+    }
+
+    private void expire(Bucket bucket) {
+        Timer timer = bucket.head;
+        while (timer != null) {
+            if (timer.remainingRounds > 0) {
+                timer.remainingRounds--;
+                timer = timer.next;
+                continue;
+            }
+            Timer next = bucket.remove(timer);
+            if (timer.state.compareAndSet(PENDING, EXPIRED)) {
+                pending.decrementAndGet();
+                try {
+                    executor.execute(timer.task);
+                } catch (RuntimeException e) {
+                    log.error("Could not run an expired timer", e);
+                }
+            }
+            timer = next;
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(worker);
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
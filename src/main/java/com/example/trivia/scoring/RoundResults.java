@@ -0,0 +1,17 @@
+package com.example.trivia.scoring;
+
+import java.util.List;
+
+/**
+ * Everything a client shows at the end of a round: each question with its
+ * correct answers and every player's (first) answer, plus the round's points
+ * per team. Built once per round and shared by all requesters.
+ */
+public record RoundResults(String gameId, String roundId, List<QuestionResult> questions, List<TeamTotal> teams) {
+    public record QuestionResult(String questionId, String text, List<String> correctAnswers,
+            List<PlayerAnswer> answers) {}
+
+    public record PlayerAnswer(String playerId, String username, String teamId, String answer, boolean correct) {}
+
+    public record TeamTotal(String teamId, String name, int points) {}
+}
@@ -0,0 +1,178 @@
+package com.example.trivia.scoring;
+
+import com.example.trivia.config.BackgroundThreads;
+import com.example.trivia.service.AnswerIngestionService;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Results of finished rounds (see {@link RoundResults}), read with a single
+ * query and cached, instead of one getAnswer request per player and question.
+ *
+ * RoundScheduler warms the cache right after scoring a round. Requests that
+ * arrive while the load is running wait for it instead of starting their
+ * own, so a round is read once however many players ask at its end. The load
+ * runs on its own executor, outside Caffeine's compute, once the round is
+ * closed (see {@link AnswerIngestionService#closeRound(String, Instant)}):
+ * whichever caller loads it, the cached results hold every answer that made
+ * the deadline.
+ */
+@Service
+public class RoundResultsService {
+    private static final Logger log = LoggerFactory.getLogger(RoundResultsService.class);
+
+    // Each player's first answer per question, the same one RoundScoringService scores
+    // (within the same window, which keeps the read to the round's partitions)
+    private static final String RESULTS_SQL = """
+        WITH round_window AS (
+            SELECT started_at - interval '1 minute' AS from_time, ended_at + interval '1 minute' AS to_time
+            FROM rounds
+            WHERE round_id = ?::uuid
+        )
+        SELECT q.question_id, q.text, q.correct_answers,
+               a.player_id, p.username, p.team_id, t.name AS team_name,
+               coalesce(a.text_reply, o.text) AS answer,
+               coalesce(a.is_correct, o.is_correct, false) AS correct
+        FROM questions q
+        LEFT JOIN (
+            SELECT DISTINCT ON (r.question_id, r.player_id) r.*
+            FROM responses r
+            JOIN questions rq ON rq.question_id = r.question_id
+            WHERE rq.round_id = ?::uuid
+              AND r.submitted_at BETWEEN (SELECT from_time FROM round_window) AND (SELECT to_time FROM round_window)
+            ORDER BY r.question_id, r.player_id, r.submitted_at
+        ) a ON a.question_id = q.question_id
+        LEFT JOIN players p ON p.player_id = a.player_id
+        LEFT JOIN teams t ON t.team_id = p.team_id
+        LEFT JOIN question_options o ON o.option_id = a.option_id
+        WHERE q.round_id = ?::uuid
+        ORDER BY q.question_id, p.username
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AnswerIngestionService answerIngestion;
+    private final ExecutorService loader;
+    private final AsyncCache<String, RoundResults> results;
+
+    public RoundResultsService(
+            JdbcTemplate jdbcTemplate,
+            AnswerIngestionService answerIngestion,
+            BackgroundThreads backgroundThreads,
+            @Value("${trivia.cache.ttl-minutes:120}") long ttlMinutes,
+            @Value("${trivia.cache.max-games:10000}") long maxGames) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.answerIngestion = answerIngestion;
+        this.loader = backgroundThreads.executor("round-results", 4);
+        this.results = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .maximumSize(maxGames * 10)
+                .executor(loader)
+                .buildAsync();
+    }
+
+    /** Results of a round that has already ended, at {@code endedAt}. */
+    public RoundResults results(String gameId, String roundId, Instant endedAt) {
+        try {
+            return load(gameId, roundId, endedAt).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /** Starts loading the results of a round that just ended, without waiting. */
+    public void warm(String gameId, String roundId, Instant endedAt) {
+        load(gameId, roundId, endedAt).whenComplete((loaded, e) -> {
+            if (e != null) {
+                log.warn("Could not load the results of round {} of game {}", roundId, gameId, e);
+            }
+        });
+    }
+
+    public void evictRounds(Collection<String> roundIds) {
+        results.synchronous().invalidateAll(roundIds);
+    }
+
+    private CompletableFuture<RoundResults> load(String gameId, String roundId, Instant endedAt) {
+        // A failed load is dropped from the cache, so the next caller tries again
+        // Not just flushPending(): a submit that passed the deadline check may not be
+        // queued yet, and results cached without it would stay wrong for the TTL
+        return results.get(roundId, (id, executor) -> answerIngestion.closeRound(id, endedAt)
+                .thenApplyAsync(closed -> query(gameId, id), executor));
+    }
+
+    private RoundResults query(String gameId, String roundId) {
+
+        Map<String, RoundResults.QuestionResult> questions = new LinkedHashMap<>();
+        Map<String, RoundResults.TeamTotal> teams = new LinkedHashMap<>();
+        jdbcTemplate.query(RESULTS_SQL, rs -> {
+            String questionId = rs.getString("question_id");
+            RoundResults.QuestionResult question = questions.get(questionId);
+            if (question == null) {
+                question = new RoundResults.QuestionResult(questionId, rs.getString("text"),
+                        textArray(rs.getArray("correct_answers")), new ArrayList<>());
+                questions.put(questionId, question);
+            }
+            String playerId = rs.getString("player_id");
+            if (playerId == null) {
+                return; // Nobody answered this question
+            }
+            String teamId = rs.getString("team_id");
+            boolean correct = rs.getBoolean("correct");
+            question.answers().add(new RoundResults.PlayerAnswer(playerId, rs.getString("username"), teamId,
+                    rs.getString("answer"), correct));
+            if (teamId != null) {
+                String name = rs.getString("team_name");
+                teams.merge(teamId, new RoundResults.TeamTotal(teamId, name, correct ? 1 : 0),
+                        (total, one) -> new RoundResults.TeamTotal(teamId, name, total.points() + one.points()));
+            }
+        }, roundId, roundId, roundId);
+
+        List<RoundResults.TeamTotal> totals = new ArrayList<>(teams.values());
+        totals.sort(Comparator.comparingInt(RoundResults.TeamTotal::points).reversed()
+                .thenComparing(RoundResults.TeamTotal::teamId));
+        List<RoundResults.QuestionResult> frozen = questions.values().stream()
+                .map(q -> new RoundResults.QuestionResult(q.questionId(), q.text(), q.correctAnswers(),
+                        List.copyOf(q.answers())))
+                .toList();
+        return new RoundResults(gameId, roundId, frozen, List.copyOf(totals));
+    }
+
+    private static List<String> textArray(Array array) throws SQLException {
+        return array == null ? List.of() : Collections.unmodifiableList(Arrays.asList((String[]) array.getArray()));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        loader.shutdown();
+        loader.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.trivia.scoring;
+
+import com.example.trivia.dao.RowMappers;
+import com.example.trivia.model.TeamScore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Scores a finished round with a single statement: grades the choice answers
+ * still ungraded, keeps each player's first answer per question, adds one
+ * point per correct answer to the player's team and replaces the round's
+ * {@code team_scores} rows. Running it again gives the same rows.
+ *
+ * Both tables are partitioned by time (see PartitionManager): answers are
+ * only looked for within the round's window, and the scores carry the
+ * round's end as their partition key, so only the round's partitions are
+ * read.
+ */
+@Service
+public class RoundScoringService {
+    private static final Logger log = LoggerFactory.getLogger(RoundScoringService.class);
+
+    // Answers are stamped by the node that took them: the window allows for clock skew
+    private static final String SCORE_ROUND_SQL = """
+        WITH round_window AS (
+            SELECT started_at - interval '1 minute' AS from_time,
+                   ended_at + interval '1 minute' AS to_time,
+                   ended_at
+            FROM rounds
+            WHERE round_id = ?
+        ), graded AS (
+            UPDATE responses r
+            SET is_correct = o.is_correct
+            FROM question_options o, questions q
+            WHERE o.option_id = r.option_id
+              AND q.question_id = r.question_id
+              AND q.round_id = ?
+              AND r.is_correct IS NULL
+              AND r.submitted_at BETWEEN (SELECT from_time FROM round_window) AND (SELECT to_time FROM round_window)
+            RETURNING r.response_id, r.is_correct
+        ), first_answers AS (
+            SELECT DISTINCT ON (r.question_id, r.player_id)
+                   r.player_id, coalesce(g.is_correct, r.is_correct, false) AS is_correct
+            FROM responses r
+            JOIN questions q ON q.question_id = r.question_id
+            LEFT JOIN graded g ON g.response_id = r.response_id
+            WHERE q.round_id = ?
+              AND r.submitted_at BETWEEN (SELECT from_time FROM round_window) AND (SELECT to_time FROM round_window)
+            ORDER BY r.question_id, r.player_id, r.submitted_at
+        ), previous AS (
+            DELETE FROM team_scores
+            WHERE round_id = ? AND round_ended_at = (SELECT ended_at FROM round_window)
+        )
+        INSERT INTO team_scores (round_id, team_id, points, round_ended_at)
+        SELECT ?, p.team_id, count(*) FILTER (WHERE a.is_correct), (SELECT ended_at FROM round_window)
+        FROM first_answers a
+        JOIN players p ON p.player_id = a.player_id
+        WHERE p.team_id IS NOT NULL
+        GROUP BY p.team_id
+        RETURNING score_id, round_id, team_id, points
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RoundScoringService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Call once the round's answers are all written; returns the round's score per team. */
+    public List<TeamScore> scoreRound(String roundId) {
+        long start = System.nanoTime();
+        UUID id = UUID.fromString(roundId);
+        List<TeamScore> scores = jdbcTemplate.query(SCORE_ROUND_SQL, RowMappers.TEAM_SCORE, id, id, id, id, id);
+        log.debug("Scored round {} for {} teams in {} ms", roundId, scores.size(), (System.nanoTime() - start) / 1_000_000);
+        return scores;
+    }
+}
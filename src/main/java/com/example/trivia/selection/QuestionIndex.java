@@ -0,0 +1,88 @@
+package com.example.trivia.selection;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of the question bank ids, bucketed by difficulty and
+ * type. Ids are stored as two parallel {@code long[]} (16 bytes per question)
+ * so a million-question bank costs ~16 MB and no per-entry objects.
+ */
+final class QuestionIndex {
+    static final QuestionIndex EMPTY = new Builder().build();
+
+    /** All ids of one difficulty, grouped by type: [typeStart[t], typeStart[t + 1]) */
+    record Bucket(long[] msb, long[] lsb, String[] types, int[] typeStart) {
+        int size() {
+            return msb.length;
+        }
+
+        UUID get(int index) {
+            return new UUID(msb[index], lsb[index]);
+        }
+    }
+
+    private final Map<String, Bucket> byDifficulty;
+
+    private QuestionIndex(Map<String, Bucket> byDifficulty) {
+        this.byDifficulty = byDifficulty;
+    }
+
+    Bucket bucket(String difficulty) {
+        return byDifficulty.get(difficulty);
+    }
+
+    int size() {
+        return byDifficulty.values().stream().mapToInt(Bucket::size).sum();
+    }
+
+    static final class Builder {
+        private final Map<String, Map<String, LongPairs>> ids = new HashMap<>();
+
+        void add(String difficulty, String type, UUID id) {
+            ids.computeIfAbsent(difficulty, d -> new HashMap<>())
+               .computeIfAbsent(type, t -> new LongPairs())
+               .add(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        }
+
+        QuestionIndex build() {
+            Map<String, Bucket> buckets = new HashMap<>();
+            ids.forEach((difficulty, byType) -> {
+                int total = byType.values().stream().mapToInt(p -> p.size).sum();
+                long[] msb = new long[total];
+                long[] lsb = new long[total];
+                String[] types = byType.keySet().stream().sorted().toArray(String[]::new);
+                int[] typeStart = new int[types.length + 1];
+                int offset = 0;
+                for (int t = 0; t < types.length; t++) {
+                    LongPairs pairs = byType.get(types[t]);
+                    typeStart[t] = offset;
+                    System.arraycopy(pairs.msb, 0, msb, offset, pairs.size);
+                    System.arraycopy(pairs.lsb, 0, lsb, offset, pairs.size);
+                    offset += pairs.size;
+                }
+                typeStart[types.length] = offset;
+                buckets.put(difficulty, new Bucket(msb, lsb, types, typeStart));
+            });
+            return new QuestionIndex(Map.copyOf(buckets));
+        }
+    }
+
+    private static final class LongPairs {
+        long[] msb = new long[1024];
+        long[] lsb = new long[1024];
+        int size;
+
+        void add(long m, long l) {
+            if (size == msb.length) {
+                msb = Arrays.copyOf(msb, size * 2);
+                lsb = Arrays.copyOf(lsb, size * 2);
+            }
+            msb[size] = m;
+            lsb[size] = l;
+            size++;
+        }
+    }
+}
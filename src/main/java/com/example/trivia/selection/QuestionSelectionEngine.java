@@ -0,0 +1,156 @@
+package com.example.trivia.selection;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks the questions of a new game from an in-memory index of the bank,
+ * instead of an {@code ORDER BY random()} scan per game.
+ *
+ * Sampling is by random index with rejection of duplicates and of questions
+ * the room has already played, so its cost depends on the number of questions
+ * requested, not on the size of the bank. The index is an immutable snapshot
+ * swapped on {@link #reload()}, so any number of games can sample concurrently.
+ */
+@Service
+public class QuestionSelectionEngine {
+    private static final Logger log = LoggerFactory.getLogger(QuestionSelectionEngine.class);
+    // Random probes per requested question before falling back to a scan of the bucket
+    private static final int MAX_PROBES_PER_QUESTION = 8;
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile QuestionIndex index = QuestionIndex.EMPTY;
+
+    public QuestionSelectionEngine(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Rebuilds the index from {@code question_bank}; call after importing questions. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true) // The driver only streams with a cursor inside a transaction
+    public void reload() {
+        long start = System.nanoTime();
+        QuestionIndex.Builder builder = new QuestionIndex.Builder();
+        jdbcTemplate.query(con -> {
+            PreparedStatement stmt = con.prepareStatement("SELECT bank_question_id, difficulty, type FROM question_bank");
+            stmt.setFetchSize(10_000);
+            return stmt;
+        }, (RowCallbackHandler) rs ->
+                builder.add(rs.getString("difficulty"), rs.getString("type"), (UUID) rs.getObject("bank_question_id")));
+        index = builder.build();
+        log.info("Question index loaded: {} questions in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Returns up to {@code count} distinct bank question ids of the given
+     * difficulty (and types, or any type if null), avoiding the ones the room
+     * has already played. Repeats are only used once the unseen questions run out.
+     */
+    public List<UUID> select(String roomId, String difficulty, Set<String> types, int count) {
+        QuestionIndex.Bucket bucket = index.bucket(difficulty);
+        if (bucket == null || count <= 0) {
+            return List.of();
+        }
+
+        int[][] ranges = ranges(bucket, types);
+        int total = 0;
+        for (int[] range : ranges) {
+            total += range[1] - range[0];
+        }
+        if (total == 0) {
+            return List.of();
+        }
+
+        Set<UUID> seen = seenByRoom(roomId);
+        Set<Integer> picked = new HashSet<>();
+        List<UUID> selected = new ArrayList<>(Math.min(count, total));
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        int probes = count * MAX_PROBES_PER_QUESTION;
+        while (selected.size() < count && picked.size() < total && probes-- > 0) {
+            int position = position(ranges, random.nextInt(total));
+            if (!picked.add(position)) {
+                continue;
+            }
+            UUID id = bucket.get(position);
+            if (!seen.contains(id)) {
+                selected.add(id);
+            }
+        }
+
+        if (selected.size() < count) {
+            // Most of the bucket is used up: finish with a scan from a random offset,
+            // unseen questions first, then repeats
+            Set<UUID> chosen = new HashSet<>(selected);
+            fill(bucket, ranges, total, random.nextInt(total), seen, chosen, selected, count, false);
+            fill(bucket, ranges, total, random.nextInt(total), seen, chosen, selected, count, true);
+        }
+        return selected;
+    }
+
+    /** {@code chosen} mirrors {@code selected}, for constant-time membership on large buckets. */
+    private static void fill(QuestionIndex.Bucket bucket, int[][] ranges, int total, int offset, Set<UUID> seen,
+            Set<UUID> chosen, List<UUID> selected, int count, boolean allowSeen) {
+        for (int i = 0; i < total && selected.size() < count; i++) {
+            int position = position(ranges, (offset + i) % total);
+            UUID id = bucket.get(position);
+            if ((allowSeen || !seen.contains(id)) && chosen.add(id)) {
+                selected.add(id);
+            }
+        }
+    }
+
+    /** [start, end) index ranges of the bucket holding the allowed types. */
+    private static int[][] ranges(QuestionIndex.Bucket bucket, Set<String> types) {
+        List<int[]> ranges = new ArrayList<>();
+        for (int t = 0; t < bucket.types().length; t++) {
+            if (types == null || types.contains(bucket.types()[t])) {
+                ranges.add(new int[] {bucket.typeStart()[t], bucket.typeStart()[t + 1]});
+            }
+        }
+        return ranges.toArray(new int[0][]);
+    }
+
+    /** Maps an offset in the concatenation of the ranges to an index of the bucket. */
+    private static int position(int[][] ranges, int offset) {
+        for (int[] range : ranges) {
+            int length = range[1] - range[0];
+            if (offset < length) {
+                return range[0] + offset;
+            }
+            offset -= length;
+        }
+        throw new IndexOutOfBoundsException(offset);
+    }
+
+    private Set<UUID> seenByRoom(String roomId) {
+        if (roomId == null) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList("""
+            SELECT DISTINCT q.bank_question_id
+            FROM games g
+            JOIN rounds r ON r.game_id = g.game_id
+            JOIN questions q ON q.round_id = r.round_id
+            WHERE g.room_id = ?::uuid AND q.bank_question_id IS NOT NULL
+            UNION
+            SELECT unnest(bank_question_ids)
+            FROM archived_games
+            WHERE room_id = ?::uuid
+            """, UUID.class, roomId, roomId));
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.trivia.service;
+
+import com.example.trivia.config.BackgroundThreads;
+import com.example.trivia.dao.ResponseDAO;
+import com.example.trivia.model.Answer;
+import com.example.trivia.model.Response;
+
+import jakarta.annotation.PreDestroy;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for submitted answers. Answers are queued in memory and
+ * written to {@code responses} as JDBC batches, either when {@code batchSize}
+ * answers are pending or every {@code flushIntervalMs}, whichever comes first.
+ *
+ * Readers that need every answer of a finished round (RoundScheduler at the
+ * round's end, RoundResultsService, getAnswer) wait for
+ * {@link #closeRound(String, Instant)} first: it completes once the submits of
+ * that round that passed the deadline check just before are queued, and
+ * everything queued has been written. {@link #flushPending()} alone would
+ * miss answers not queued yet.
+ */
+@Service
+public class AnswerIngestionService {
+    private static final Logger log = LoggerFactory.getLogger(AnswerIngestionService.class);
+
+    private final ResponseDAO responseDAO;
+    private final BlockingQueue<Response> buffer;
+    private final int batchSize;
+    private final ScheduledExecutorService flusher;
+    // Held for the whole drain + write, so flushPending() never returns while
+    // another thread still has drained answers in flight
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Submits between their deadline check and the queue, per round; closing one
+    // round never waits for the submits of the others
+    private final Map<String, RoundSubmits> submitting = new ConcurrentHashMap<>();
+    // At most one size-triggered flush waiting on the flusher thread
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    public AnswerIngestionService(
+            ResponseDAO responseDAO,
+            BackgroundThreads backgroundThreads,
+            MeterRegistry meterRegistry,
+            @Value("${trivia.answers.buffer-capacity:10000}") int bufferCapacity,
+            @Value("${trivia.answers.batch-size:500}") int batchSize,
+            @Value("${trivia.answers.flush-interval-ms:50}") long flushIntervalMs) {
+        this.responseDAO = responseDAO;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(backgroundThreads.factory("answer-flusher"));
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        Gauge.builder("trivia.answers.buffered", buffer, BlockingQueue::size)
+                .description("Answers queued and not yet written to responses")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues an answer unless {@code deadline}, the end of round {@code roundId},
+     * has passed. Blocks only if the buffer is full and has to be flushed inline.
+     *
+     * @return false if the round is over and the answer was not queued
+     */
+    public boolean submit(String roundId, Answer answer, Instant deadline) {
+        RoundSubmits round = submitting.computeIfAbsent(roundId, id -> new RoundSubmits());
+        if (!round.enter()) {
+            return false; // Already closed
+        }
+        Instant now = Instant.now();
+        boolean late = !now.isBefore(deadline);
+        try {
+            if (late) {
+                return false;
+            }
+            Response response = new Response(
+                    answer.answerId(),
+                    answer.questionId(),
+                    answer.playerId(),
+                    Timestamp.from(now),
+                    answer.answer(),
+                    null,
+                    answer.correct());
+
+            while (!buffer.offer(response)) {
+                // Buffer full: the caller pays for the flush (backpressure)
+                flushPending();
+            }
+        } finally {
+            round.exit();
+            if (late) {
+                // No submit of this round can be queued any more: close it, so that its
+                // entry does not outlive it if closeRound has already been and gone
+                round.close().thenRun(() -> submitting.remove(roundId, round));
+            }
+        }
+        if (buffer.size() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(this::scheduledFlush);
+        }
+        return true;
+    }
+
+    /**
+     * Writes every answer of round {@code roundId}, which ends at {@code deadline}.
+     * Completes once the submits still between their deadline check and the
+     * queue have queued their answers and the queue has been flushed. No thread
+     * waits meanwhile: an early call is rescheduled for the deadline, and the
+     * last of those submits runs the flush. Cheap to call again for a round
+     * already closed.
+     */
+    public CompletableFuture<Void> closeRound(String roundId, Instant deadline) {
+        long early = Duration.between(Instant.now(), deadline).toMillis();
+        if (early >= 0) {
+            CompletableFuture<Void> closed = new CompletableFuture<>();
+            flusher.schedule(() -> closeRound(roundId, deadline).whenComplete((done, e) -> {
+                if (e != null) {
+                    closed.completeExceptionally(e);
+                } else {
+                    closed.complete(done);
+                }
+            }), early + 1, TimeUnit.MILLISECONDS);
+            return closed;
+        }
+        // Later submits see the deadline passed and are rejected
+        RoundSubmits round = submitting.computeIfAbsent(roundId, id -> new RoundSubmits());
+        return round.close().thenRun(() -> {
+            submitting.remove(roundId, round);
+            flushPending();
+        });
+    }
+
+    /** Writes every queued answer before returning. Cheap no-op when nothing is pending. */
+    public void flushPending() {
+        flushLock.lock();
+        try {
+            while (!buffer.isEmpty()) {
+                writeBatch();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int pending() {
+        return buffer.size();
+    }
+
+    private void scheduledFlush() {
+        flushScheduled.set(false); // Answers queued from now on may schedule the next one
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flushPending();
+        } catch (RuntimeException e) {
+            log.error("Answer flush failed", e);
+        }
+    }
+
+    private void writeBatch() {
+        List<Response> batch = new ArrayList<>(Math.min(batchSize, buffer.size()));
+        buffer.drainTo(batch, batchSize);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            responseDAO.insertBatch(batch);
+        } catch (SQLException | DataAccessException e) {
+            // A single bad row (e.g. the game was deleted meanwhile) fails the whole
+            // batch: retry row by row so the rest of the answers are not lost
+            log.warn("Batch insert of {} answers failed, retrying one by one", batch.size(), e);
+            insertOneByOne(batch);
+        }
+    }
+
+    private void insertOneByOne(List<Response> batch) {
+        for (Response response : batch) {
+            try {
+                responseDAO.insertBatch(List.of(response));
+            } catch (SQLException | DataAccessException e) {
+                log.error("Dropping answer {}: {}", response.responseId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Submits of one round between their deadline check and the queue. The
+     * count and the closed flag share one int so that a submit can never
+     * enter after the last one out has been seen.
+     */
+    private static final class RoundSubmits {
+        private static final int CLOSED = 1 << 30;
+
+        private final AtomicInteger state = new AtomicInteger();
+        private final CompletableFuture<Void> drained = new CompletableFuture<>();
+
+        boolean enter() {
+            int current;
+            do {
+                current = state.get();
+                if ((current & CLOSED) != 0) {
+                    return false;
+                }
+            } while (!state.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        void exit() {
+            if (state.decrementAndGet() == CLOSED) {
+                drained.complete(null);
+            }
+        }
+
+        CompletableFuture<Void> close() {
+            int current;
+            do {
+                current = state.get();
+                if ((current & CLOSED) != 0) {
+                    return drained;
+                }
+            } while (!state.compareAndSet(current, current | CLOSED));
+            if (current == 0) {
+                drained.complete(null);
+            }
+            return drained;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flushPending();
+    }
+}
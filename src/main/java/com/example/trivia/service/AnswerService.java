@@ -0,0 +1,113 @@
+package com.example.trivia.service;
+
+import com.example.trivia.auth.PlayerToken;
+import com.example.trivia.cache.GameCache;
+import com.example.trivia.grading.AnswerGrader;
+import com.example.trivia.ids.IdGenerator;
+import com.example.trivia.leaderboard.LeaderboardService;
+import com.example.trivia.model.Answer;
+import com.example.trivia.model.Game;
+import com.example.trivia.model.Question;
+import com.example.trivia.model.Round;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Answer submission shared by the REST endpoint and the game WebSocket:
+ * validates the round and the player, grades the reply, updates the live
+ * leaderboard and queues it.
+ *
+ * Counts every submission by result ({@code trivia.answers.submitted}) and
+ * every graded one by correctness ({@code trivia.answers.graded}).
+ */
+@Service
+public class AnswerService {
+    public enum SubmitResult { ACCEPTED, NOT_FOUND, ROUND_ENDED, FORBIDDEN }
+
+    private final GameCache gameCache;
+    private final AnswerGrader answerGrader;
+    private final AnswerIngestionService answerIngestion;
+    private final LeaderboardService leaderboard;
+    private final IdGenerator ids;
+    private final Map<SubmitResult, Counter> submitted = new EnumMap<>(SubmitResult.class);
+    private final Counter gradedCorrect;
+    private final Counter gradedIncorrect;
+
+    public AnswerService(GameCache gameCache, AnswerGrader answerGrader, AnswerIngestionService answerIngestion,
+            LeaderboardService leaderboard, IdGenerator ids, MeterRegistry meterRegistry) {
+        this.gameCache = gameCache;
+        this.answerGrader = answerGrader;
+        this.answerIngestion = answerIngestion;
+        this.leaderboard = leaderboard;
+        this.ids = ids;
+        for (SubmitResult result : SubmitResult.values()) {
+            submitted.put(result, meterRegistry.counter("trivia.answers.submitted", "result", result.name().toLowerCase(Locale.ROOT)));
+        }
+        this.gradedCorrect = meterRegistry.counter("trivia.answers.graded", "correct", "true");
+        this.gradedIncorrect = meterRegistry.counter("trivia.answers.graded", "correct", "false");
+    }
+
+    /**
+     * @param player the caller's authenticated player in the game's room, or null
+     */
+    public SubmitResult submit(String gameId, String roundId, String questionId, String playerId,
+            String reply, PlayerToken player) {
+        SubmitResult result = doSubmit(gameId, roundId, questionId, playerId, reply, player);
+        submitted.get(result).increment();
+        return result;
+    }
+
+    private SubmitResult doSubmit(String gameId, String roundId, String questionId, String playerId,
+            String reply, PlayerToken player) {
+        // All lookups are served from the cache during an active round
+        Optional<Game> gameOptional = gameCache.game(gameId);
+        Optional<Question> questionOptional = gameCache.question(questionId);
+        Optional<Round> roundOptional = gameCache.round(roundId);
+        if (gameOptional.isEmpty()
+                || questionOptional.isEmpty()
+                || roundOptional.isEmpty()) {
+            return SubmitResult.NOT_FOUND;
+        }
+
+        Round round = roundOptional.get();
+        // The ids in the path must belong together
+        if (!round.gameId().toString().equals(gameId) || !questionOptional.get().roundId().equals(round.roundId())) {
+            return SubmitResult.NOT_FOUND;
+        }
+        Instant deadline = round.endedAt().toInstant();
+        if (Instant.now().isAfter(deadline)) {
+            return SubmitResult.ROUND_ENDED;
+        }
+
+        // The token says which player joined the room, no need to load it again
+        if (player == null || !player.playerId().equals(playerId)) {
+            return SubmitResult.FORBIDDEN;
+        }
+
+        // Check whether the submited answer is correct
+        Question question = questionOptional.get();
+        boolean correct = answerGrader.isCorrect(question, reply);
+        (correct ? gradedCorrect : gradedIncorrect).increment();
+
+        // The token was issued for this player's id, so playerId is a valid UUID
+        Answer answer = new Answer(ids.next(), question.questionId(), UUID.fromString(playerId), null, reply, correct);
+
+        // Written to the DB in batches, see AnswerIngestionService. Checks the deadline
+        // again: the round may have ended while the answer was graded
+        if (!answerIngestion.submit(round.roundId().toString(), answer, deadline)) {
+            return SubmitResult.ROUND_ENDED;
+        }
+        leaderboard.recordAnswer(gameId, roundId, questionId, playerId, correct);
+        return SubmitResult.ACCEPTED;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.trivia.service;
+
+import com.example.trivia.model.Game;
+import com.example.trivia.model.Round;
+import com.example.trivia.model.Settings;
+import com.example.trivia.selection.QuestionSelectionEngine;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Creates a game with all its rounds and questions in one transaction.
+ *
+ * Questions are picked by the {@link QuestionSelectionEngine} and copied, with their
+ * options, into {@code questions}/{@code question_options} for each round.
+ * Everything after the selection is a single INSERT with data-modifying CTEs
+ * fed by arrays, so a 50-round game costs the same two round-trips as a
+ * 1-round one.
+ */
+@Service
+public class GameProvisioningService {
+    private static final String PROVISION_SQL = """
+        WITH new_game AS (
+            INSERT INTO games (game_id, room_id, started_at, ended_at, settings_id)
+            VALUES (?, ?, ?, ?, ?)
+        ), new_rounds AS (
+            INSERT INTO rounds (round_id, game_id, number, started_at, ended_at)
+            SELECT r.round_id, ?, r.number, r.started_at, r.ended_at
+            FROM unnest(?::uuid[], ?::int[], ?::timestamptz[], ?::timestamptz[])
+                AS r(round_id, number, started_at, ended_at)
+        ), new_questions AS (
+            INSERT INTO questions (round_id, type, text, media_url, correct_answers, bank_question_id)
+            SELECT s.round_id, b.type, b.text, b.media_url, b.correct_answers, b.bank_question_id
+            FROM unnest(?::uuid[], ?::uuid[]) AS s(round_id, bank_question_id)
+            JOIN question_bank b ON b.bank_question_id = s.bank_question_id
+            RETURNING question_id, bank_question_id
+        )
+        INSERT INTO question_options (question_id, text, is_correct)
+        SELECT q.question_id, o.text, o.is_correct
+        FROM new_questions q
+        JOIN question_bank_options o ON o.bank_question_id = q.bank_question_id
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final QuestionSelectionEngine questionSelection;
+
+    public GameProvisioningService(JdbcTemplate jdbcTemplate, QuestionSelectionEngine questionSelection) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.questionSelection = questionSelection;
+    }
+
+    /**
+     * Inserts the game, its rounds and {@code questionsPerRound} bank questions
+     * of the settings' difficulty per round, preferring questions the room has
+     * not played yet. If the bank runs short, the last rounds get fewer questions.
+     * The game row keeps the id of {@code settings}, the snapshot it was created with.
+     */
+    @Transactional
+    public void provision(Game game, List<Round> rounds, Settings settings) {
+        List<UUID> bankQuestionIds = questionSelection.select(game.roomId().toString(), settings.difficulty(), null,
+                settings.questionsPerRound() * rounds.size());
+
+        // Question i goes to round i / questionsPerRound
+        List<UUID> questionRoundIds = new ArrayList<>(bankQuestionIds.size());
+        for (int i = 0; i < bankQuestionIds.size(); i++) {
+            questionRoundIds.add(rounds.get(i / settings.questionsPerRound()).roundId());
+        }
+
+        jdbcTemplate.update(PROVISION_SQL, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setObject(1, game.gameId());
+            ps.setObject(2, game.roomId());
+            ps.setTimestamp(3, game.startedAt());
+            ps.setTimestamp(4, game.endedAt());
+            ps.setObject(5, game.settingsId());
+            ps.setObject(6, game.gameId());
+            ps.setArray(7, uuidArray(connection, rounds.stream().map(Round::roundId).toList()));
+            ps.setArray(8, connection.createArrayOf("int4", rounds.stream().map(Round::number).toArray()));
+            ps.setArray(9, connection.createArrayOf("timestamptz", rounds.stream().map(Round::startedAt).toArray()));
+            ps.setArray(10, connection.createArrayOf("timestamptz", rounds.stream().map(Round::endedAt).toArray()));
+            ps.setArray(11, uuidArray(connection, questionRoundIds));
+            ps.setArray(12, uuidArray(connection, bankQuestionIds));
+        });
+    }
+
+    private static Array uuidArray(Connection connection, List<UUID> ids) throws SQLException {
+        return connection.createArrayOf("uuid", ids.toArray());
+    }
+}
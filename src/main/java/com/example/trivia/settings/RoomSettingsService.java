@@ -0,0 +1,161 @@
+package com.example.trivia.settings;
+
+import com.example.trivia.cluster.ClusterEvents;
+import com.example.trivia.ids.Ids;
+import com.example.trivia.model.Room;
+import com.example.trivia.model.Settings;
+import com.example.trivia.repository.RoomRepository;
+import com.example.trivia.repository.SettingsRepository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Room settings as immutable, versioned snapshots.
+ *
+ * A {@code settings} row is never modified: an update inserts a new row with
+ * the next version and points the room at it, but only if the room still
+ * points at the snapshot the caller edited (optimistic check). Games keep the
+ * id of the snapshot they were created with ({@code games.settings_id}), so
+ * changing a room's settings never affects a game already running.
+ *
+ * Since snapshots never change they are cached by id with no invalidation.
+ * The room -> current snapshot mapping is replaced on update, and dropped when
+ * another node announces a change through {@code settings_changed}.
+ *
+ * Cached objects are shared between requests: callers must not modify them.
+ */
+@Service
+public class RoomSettingsService {
+    // Locking the room row makes a concurrent update wait, then see the new
+    // settings_id and match nothing: exactly one of two racing updates wins
+    private static final String SWAP_SQL = """
+        WITH current_settings AS (
+            SELECT s.version
+            FROM rooms r
+            JOIN settings s ON s.settings_id = r.settings_id
+            WHERE r.room_id = ? AND r.settings_id = ?
+            FOR UPDATE OF r
+        ), new_settings AS (
+            INSERT INTO settings (rounds, time_per_round, questions_per_round, difficulty, max_players_per_team, version)
+            SELECT ?, ?, ?, ?, ?, version + 1
+            FROM current_settings
+            RETURNING settings_id, version
+        ), swapped AS (
+            UPDATE rooms
+            SET settings_id = (SELECT settings_id FROM new_settings)
+            WHERE room_id = ? AND EXISTS (SELECT 1 FROM new_settings)
+        )
+        SELECT settings_id, version FROM new_settings
+        """;
+
+    private final RoomRepository roomRepo;
+    private final SettingsRepository settingsRepo;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Room -> id of its current snapshot
+    private final Cache<String, UUID> settingsByRoom;
+    private final Cache<UUID, Settings> snapshots;
+
+    public RoomSettingsService(
+            RoomRepository roomRepo,
+            SettingsRepository settingsRepo,
+            JdbcTemplate jdbcTemplate,
+            ClusterEvents clusterEvents,
+            @Value("${trivia.cache.ttl-minutes:120}") long ttlMinutes,
+            @Value("${trivia.cache.max-games:10000}") long maxRooms) {
+        this.roomRepo = roomRepo;
+        this.settingsRepo = settingsRepo;
+        this.jdbcTemplate = jdbcTemplate;
+
+        Duration ttl = Duration.ofMinutes(ttlMinutes);
+        this.settingsByRoom = Caffeine.newBuilder().expireAfterAccess(ttl).maximumSize(maxRooms).build();
+        // Old snapshots stay cached while games pinned to them are still played
+        this.snapshots = Caffeine.newBuilder().expireAfterAccess(ttl).maximumSize(maxRooms * 2).build();
+
+        clusterEvents.subscribe("settings_changed", event -> {
+            Object settingsId = event.data().get("settingsId");
+            if (settingsId == null
+                    || !settingsId.toString().equals(String.valueOf(settingsByRoom.getIfPresent(event.roomId())))) {
+                settingsByRoom.invalidate(event.roomId());
+            }
+        });
+    }
+
+    /** Caches the settings of a room just created. */
+    public void put(String roomId, Settings settings) {
+        snapshots.put(settings.settingsId(), settings);
+        settingsByRoom.put(roomId, settings.settingsId());
+    }
+
+    /** The room's current settings, or empty if the room does not exist. */
+    public Optional<Settings> current(String roomId) {
+        UUID settingsId = settingsByRoom.getIfPresent(roomId);
+        if (settingsId == null) {
+            Optional<Room> room = Ids.parse(roomId).flatMap(roomRepo::findById);
+            if (room.isEmpty()) {
+                return Optional.empty();
+            }
+            settingsId = room.get().settingsId();
+            settingsByRoom.put(roomId, settingsId);
+        }
+        return snapshot(settingsId);
+    }
+
+    /** A snapshot by id, e.g. the one a game was created with (none for games older than snapshots). */
+    public Optional<Settings> snapshot(UUID settingsId) {
+        if (settingsId == null) {
+            return Optional.empty();
+        }
+        Settings settings = snapshots.getIfPresent(settingsId);
+        if (settings != null) {
+            return Optional.of(settings);
+        }
+        Optional<Settings> loaded = settingsRepo.findById(settingsId);
+        loaded.ifPresent(s -> snapshots.put(settingsId, s));
+        return loaded;
+    }
+
+    /**
+     * Makes {@code edited} the room's current settings if the room still points
+     * at {@code edited.settingsId()}. Returns the new snapshot, or empty if
+     * the settings were changed in between (or the room no longer exists).
+     */
+    public Optional<Settings> update(String roomId, Settings edited) {
+        Optional<UUID> room = Ids.parse(roomId);
+        if (room.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Settings> swapped = jdbcTemplate.query(SWAP_SQL,
+                (rs, rowNum) -> snapshotOf(edited, rs.getObject("settings_id", UUID.class), rs.getInt("version")),
+                room.get(),
+                edited.settingsId(),
+                edited.rounds(),
+                edited.timePerRound(),
+                edited.questionsPerRound(),
+                edited.difficulty(),
+                edited.maxPlayersPerTeam(),
+                room.get());
+        if (swapped.isEmpty()) {
+            settingsByRoom.invalidate(roomId); // Whatever we had is not current any more
+            return Optional.empty();
+        }
+        Settings snapshot = swapped.get(0);
+        put(roomId, snapshot);
+        return Optional.of(snapshot);
+    }
+
+    private static Settings snapshotOf(Settings values, UUID settingsId, int version) {
+        return new Settings(settingsId, values.rounds(), values.timePerRound(), values.questionsPerRound(),
+                values.difficulty(), values.maxPlayersPerTeam(), version);
+    }
+}
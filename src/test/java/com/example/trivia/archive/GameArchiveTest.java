@@ -0,0 +1,107 @@
+package com.example.trivia.archive;
+
+import com.example.trivia.archive.ArchivedGame.Answer;
+import com.example.trivia.archive.ArchivedGame.ArchivedQuestion;
+import com.example.trivia.archive.ArchivedGame.ArchivedRound;
+import com.example.trivia.archive.ArchivedGame.Option;
+import com.example.trivia.archive.ArchivedGame.TeamPoints;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameArchiveTest {
+	@TempDir
+	Path dir;
+
+	@Test
+	void findsGamesAcrossSegmentsAfterReopening() throws IOException {
+		List<ArchivedGame> first = games(50);
+		List<ArchivedGame> second = games(3);
+
+		GameArchive archive = open();
+		archive.append(first);
+		archive.append(second);
+
+		for (GameArchive reader : List.of(archive, open())) {
+			for (ArchivedGame game : first) {
+				assertEquals(game, reader.find(game.gameId()).orElseThrow());
+			}
+			for (ArchivedGame game : second) {
+				assertEquals(game, reader.find(game.gameId()).orElseThrow());
+				assertTrue(reader.contains(game.gameId()));
+			}
+		}
+	}
+
+	@Test
+	void unknownGamesAreNotFound() throws IOException {
+		GameArchive archive = open();
+		archive.append(games(10));
+		String unknown = UUID.randomUUID().toString();
+
+		assertFalse(archive.find(unknown).isPresent());
+		assertFalse(archive.contains(unknown));
+		assertFalse(archive.find("not-a-uuid").isPresent());
+	}
+
+	@Test
+	void emptyArchiveFindsNothing() throws IOException {
+		assertFalse(open().find(UUID.randomUUID().toString()).isPresent());
+	}
+
+	@Test
+	void openRemovesWhatAnInterruptedRunLeft() throws IOException {
+		Path dataTmp = Files.writeString(dir.resolve("games-00000001.seg.tmp"), "half a segment");
+		Path indexTmp = Files.writeString(dir.resolve("games-00000001.idx.tmp"), "");
+		Path unrelated = Files.writeString(dir.resolve("notes.tmp"), "not ours");
+
+		GameArchive archive = open();
+
+		assertFalse(Files.exists(dataTmp));
+		assertFalse(Files.exists(indexTmp));
+		assertTrue(Files.exists(unrelated));
+
+		// The interrupted run's sequence number is free again
+		ArchivedGame game = games(1).get(0);
+		archive.append(List.of(game));
+		assertTrue(Files.exists(dir.resolve("games-00000001.idx")));
+		assertEquals(game, open().find(game.gameId()).orElseThrow());
+	}
+
+	private GameArchive open() throws IOException {
+		GameArchive archive = new GameArchive(null, dir.toString(), 120, 10000);
+		archive.open();
+		return archive;
+	}
+
+	private static List<ArchivedGame> games(int count) {
+		Instant start = Instant.parse("2025-03-01T20:00:00.123Z");
+		List<ArchivedGame> games = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			String questionId = UUID.randomUUID().toString();
+			String optionId = UUID.randomUUID().toString();
+			ArchivedQuestion question = new ArchivedQuestion(questionId, "multiple_choice", "Capital de Francia", null,
+					List.of("París"),
+					List.of(new Option(optionId, "París", true), new Option(UUID.randomUUID().toString(), "Lyon", false)),
+					List.of(new Answer(UUID.randomUUID().toString(), UUID.randomUUID().toString(),
+							start.plusSeconds(30), null, optionId, true)));
+			ArchivedRound round = new ArchivedRound(UUID.randomUUID().toString(), 1, start, start.plusSeconds(60),
+					List.of(question), List.of(new TeamPoints(UUID.randomUUID().toString(), 10)));
+			games.add(new ArchivedGame(UUID.randomUUID().toString(), UUID.randomUUID().toString(), start,
+					start.plusSeconds(600), null, List.of(round)));
+		}
+		return games;
+	}
+}
@@ -0,0 +1,79 @@
+package com.example.trivia.auth;
+
+import com.example.trivia.model.Player;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerTokenServiceTest {
+	private static final String SECRET = "test-secret-shared-by-every-node";
+	private static final UUID PLAYER_ID = UUID.fromString("0190a1b2-c3d4-7e5f-8a6b-7c8d9e0f1a2b");
+	private static final UUID ROOM_ID = UUID.fromString("0190a1b2-c3d4-7000-9000-000000000001");
+
+	private final PlayerTokenService tokens = new PlayerTokenService(SECRET, 24);
+
+	@Test
+	void verifiesItsOwnTokens() {
+		PlayerToken token = tokens.verify(tokens.issue(player(true))).orElseThrow();
+
+		assertEquals(PLAYER_ID.toString(), token.playerId());
+		assertEquals(ROOM_ID.toString(), token.roomId());
+		assertTrue(token.host());
+		assertTrue(token.expiresAt() > Instant.now().getEpochSecond());
+	}
+
+	@Test
+	void anyNodeWithTheSecretAcceptsTheToken() {
+		String token = tokens.issue(player(false));
+
+		assertTrue(new PlayerTokenService(SECRET, 24).verify(token).isPresent());
+	}
+
+	@Test
+	void rejectsTamperedClaims() {
+		String token = tokens.issue(player(false));
+		String signature = token.substring(token.indexOf('.') + 1);
+		String claims = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+		String promoted = claims.replace(ROOM_ID + ":0:", ROOM_ID + ":1:");
+
+		String forged = Base64.getUrlEncoder().withoutPadding().encodeToString(promoted.getBytes(StandardCharsets.UTF_8))
+				+ "." + signature;
+
+		assertFalse(tokens.verify(forged).isPresent());
+	}
+
+	@Test
+	void rejectsTokensSignedWithAnotherSecret() {
+		String token = new PlayerTokenService("some-other-secret", 24).issue(player(true));
+
+		assertFalse(tokens.verify(token).isPresent());
+	}
+
+	@Test
+	void rejectsMalformedTokens() {
+		assertFalse(tokens.verify(null).isPresent());
+		assertFalse(tokens.verify("").isPresent());
+		assertFalse(tokens.verify("no-dot-at-all").isPresent());
+		assertFalse(tokens.verify("not*base64.at*all").isPresent());
+		assertFalse(tokens.verify(tokens.issue(player(false)) + "x").isPresent());
+	}
+
+	@Test
+	void rejectsExpiredTokens() {
+		String token = new PlayerTokenService(SECRET, 0).issue(player(false));
+
+		assertFalse(tokens.verify(token).isPresent());
+	}
+
+	private static Player player(boolean host) {
+		return new Player(PLAYER_ID, ROOM_ID, "ana", host, null);
+	}
+}
@@ -0,0 +1,86 @@
+package com.example.trivia.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomRingTest {
+	private static final String THREE_NODES = "a=http://a:8080,b=http://b:8080/,c=http://c:8080";
+	private static final int ROOMS = 10_000;
+
+	@Test
+	void singleNodeOwnsEveryRoom() {
+		RoomRing ring = new RoomRing("local", "");
+
+		assertFalse(ring.isClustered());
+		assertEquals(ring.localNode(), ring.owner(UUID.randomUUID().toString()));
+		assertTrue(ring.isLocal(UUID.randomUUID().toString()));
+	}
+
+	@Test
+	void roomsAreSpreadEvenly() {
+		RoomRing ring = new RoomRing("a", THREE_NODES);
+		Map<String, Integer> owned = new HashMap<>();
+
+		for (int i = 0; i < ROOMS; i++) {
+			owned.merge(ring.owner(roomId(i)).id(), 1, Integer::sum);
+		}
+
+		assertTrue(ring.isClustered());
+		assertEquals(3, owned.size());
+		for (int count : owned.values()) {
+			assertTrue(count > ROOMS * 25 / 100 && count < ROOMS * 42 / 100, "Unbalanced ring: " + owned);
+		}
+	}
+
+	@Test
+	void removingANodeOnlyMovesItsRooms() {
+		RoomRing before = new RoomRing("a", THREE_NODES);
+		RoomRing after = new RoomRing("a", "a=http://a:8080,b=http://b:8080/");
+
+		for (int i = 0; i < ROOMS; i++) {
+			String owner = before.owner(roomId(i)).id();
+			if (!owner.equals("c")) {
+				assertEquals(owner, after.owner(roomId(i)).id());
+			}
+		}
+	}
+
+	@Test
+	void everyNodeAgreesOnTheOwner() {
+		RoomRing a = new RoomRing("a", THREE_NODES);
+		RoomRing c = new RoomRing("c", THREE_NODES);
+
+		for (int i = 0; i < 1000; i++) {
+			String room = roomId(i);
+			assertEquals(a.owner(room), c.owner(room));
+			assertEquals(a.owner(room).id().equals("a"), a.isLocal(room));
+		}
+	}
+
+	@Test
+	void looksUpMembersById() {
+		RoomRing ring = new RoomRing("a", THREE_NODES);
+
+		assertEquals("http://b:8080", ring.node("b").orElseThrow().baseUrl());
+		assertEquals(ring.localNode(), ring.node("a").orElseThrow());
+		assertFalse(ring.node("d").isPresent());
+	}
+
+	@Test
+	void rejectsANodeIdThatIsNotAMember() {
+		assertThrows(IllegalStateException.class, () -> new RoomRing("d", THREE_NODES));
+		assertThrows(IllegalArgumentException.class, () -> new RoomRing("a", "a=http://a:8080,b"));
+	}
+
+	private static String roomId(int i) {
+		return new UUID(0x0190_0000_0000_7000L + i, 0x8000_0000_0000_0000L + i * 31L).toString();
+	}
+}
@@ -0,0 +1,70 @@
+package com.example.trivia.grading;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnswerMatcherTest {
+
+	@Test
+	void ignoresCaseAccentsPunctuationAndWhitespace() {
+		AnswerMatcher matcher = AnswerMatcher.compile(
+				List.of("Amélie", "Schindler's List", "Star Wars: Episode IV – A New Hope"), false);
+
+		assertTrue(matcher.matches("amelie"));
+		assertTrue(matcher.matches("AME\u0301LIE")); // decomposed accent
+		assertTrue(matcher.matches("schindlers   list"));
+		assertTrue(matcher.matches("Schindler’s List"));
+		assertTrue(matcher.matches("star wars episode iv a new hope!"));
+		assertFalse(matcher.matches("schindler list"));
+	}
+
+	@Test
+	void leadingArticleIsOptional() {
+		AnswerMatcher matcher = AnswerMatcher.compile(List.of("The Godfather"), false);
+
+		assertTrue(matcher.matches("Godfather"));
+		assertTrue(matcher.matches("  the godfather "));
+	}
+
+	@Test
+	void leadingArticleIsOptionalInTheReplyToo() {
+		AnswerMatcher matcher = AnswerMatcher.compile(List.of("Godfather"), true);
+
+		assertTrue(matcher.matches("The Godfather"));
+		assertTrue(matcher.matches("the godfater"));
+		assertFalse(matcher.matches("the"));
+	}
+
+	@Test
+	void articleFollowedByAnotherArticleIsKept() {
+		AnswerMatcher matcher = AnswerMatcher.compile(List.of("La La Land"), false);
+
+		assertTrue(matcher.matches("la la land"));
+		assertFalse(matcher.matches("la land"));
+		assertFalse(matcher.matches("land"));
+	}
+
+	@Test
+	void toleratesTyposOnlyWhenEnabledAndOnLongAnswers() {
+		AnswerMatcher strict = AnswerMatcher.compile(List.of("Casablanca", "Up"), false);
+		AnswerMatcher tolerant = AnswerMatcher.compile(List.of("Casablanca", "Up"), true);
+
+		assertFalse(strict.matches("Casablanka"));
+		assertTrue(tolerant.matches("Casablanka"));
+		assertTrue(tolerant.matches("Casblanca"));
+		assertFalse(tolerant.matches("Casabalnkaa"));
+		assertFalse(tolerant.matches("Us"));
+	}
+
+	@Test
+	void noCorrectAnswersNeverMatches() {
+		AnswerMatcher matcher = AnswerMatcher.compile(null, true);
+
+		assertFalse(matcher.matches("anything"));
+		assertFalse(matcher.matches(null));
+	}
+}
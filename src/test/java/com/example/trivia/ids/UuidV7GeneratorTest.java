@@ -0,0 +1,77 @@
+package com.example.trivia.ids;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7GeneratorTest {
+	private static final long NOW = 1_760_000_000_000L;
+
+	@Test
+	void encodesVersionVariantAndTimestamp() {
+		UUID id = new UuidV7Generator(() -> NOW).next();
+
+		assertEquals(7, id.version());
+		assertEquals(2, id.variant());
+		assertEquals(NOW, id.getMostSignificantBits() >>> 16);
+	}
+
+	@Test
+	void increasesWithinOneMillisecond() {
+		UuidV7Generator ids = new UuidV7Generator(() -> NOW);
+
+		UUID previous = ids.next();
+		for (int i = 0; i < 1000; i++) {
+			UUID id = ids.next();
+			assertTrue(Long.compareUnsigned(previous.getMostSignificantBits(), id.getMostSignificantBits()) < 0);
+			assertEquals(7, id.version());
+			assertEquals(2, id.variant());
+			assertEquals(NOW, id.getMostSignificantBits() >>> 16);
+			previous = id;
+		}
+	}
+
+	@Test
+	void counterOverflowBorrowsTheNextMillisecond() {
+		UuidV7Generator ids = new UuidV7Generator(() -> NOW);
+
+		for (int i = 0; i < 4096; i++) {
+			assertEquals(NOW, ids.next().getMostSignificantBits() >>> 16);
+		}
+		UUID overflow = ids.next();
+
+		assertEquals(NOW + 1, overflow.getMostSignificantBits() >>> 16);
+		assertEquals(7, overflow.version());
+	}
+
+	@Test
+	void keepsIncreasingWhenTheClockGoesBack() {
+		AtomicLong clock = new AtomicLong(NOW);
+		UuidV7Generator ids = new UuidV7Generator(clock::get);
+
+		UUID before = ids.next();
+		clock.set(NOW - 5_000);
+		UUID after = ids.next();
+
+		assertTrue(Long.compareUnsigned(before.getMostSignificantBits(), after.getMostSignificantBits()) < 0);
+		assertEquals(NOW, after.getMostSignificantBits() >>> 16);
+	}
+
+	@Test
+	void sortsByTextInCreationOrder() {
+		AtomicLong clock = new AtomicLong(NOW);
+		UuidV7Generator ids = new UuidV7Generator(clock::get);
+
+		String first = ids.nextString();
+		String sameMillisecond = ids.nextString();
+		clock.addAndGet(1);
+		String nextMillisecond = ids.nextString();
+
+		assertTrue(first.compareTo(sameMillisecond) < 0);
+		assertTrue(sameMillisecond.compareTo(nextMillisecond) < 0);
+	}
+}
@@ -0,0 +1,100 @@
+package com.example.trivia.rounds;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+	private static final long TOLERANCE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	// 4 buckets of 20 ms: one turn of the wheel is 80 ms
+	private final TimingWheel wheel = new TimingWheel(Duration.ofMillis(20), 4, Runnable::run, Thread::new);
+
+	@AfterEach
+	void closeWheel() throws InterruptedException {
+		wheel.close();
+	}
+
+	@Test
+	void firesOnTimeNeverEarly() throws InterruptedException {
+		long start = System.nanoTime();
+		AtomicLong firedAfter = new AtomicLong();
+		CountDownLatch fired = new CountDownLatch(1);
+
+		wheel.schedule(Instant.now().plusMillis(50), () -> {
+			firedAfter.set(System.nanoTime() - start);
+			fired.countDown();
+		});
+
+		assertTrue(fired.await(1, TimeUnit.SECONDS));
+		assertTrue(firedAfter.get() >= TimeUnit.MILLISECONDS.toNanos(50) - TOLERANCE_NANOS);
+		assertTrue(firedAfter.get() < TimeUnit.MILLISECONDS.toNanos(50 + 20 + 200)); // One tick late, plus slack
+	}
+
+	@Test
+	void timersSeveralTurnsAwayWaitForTheirTurn() throws InterruptedException {
+		long start = System.nanoTime();
+		AtomicLong nearFiredAfter = new AtomicLong();
+		AtomicLong farFiredAfter = new AtomicLong();
+		CountDownLatch fired = new CountDownLatch(2);
+		Instant now = Instant.now();
+
+		// Same bucket, two turns apart: the far one must survive the near one's expiry
+		wheel.schedule(now.plusMillis(60), () -> {
+			nearFiredAfter.set(System.nanoTime() - start);
+			fired.countDown();
+		});
+		wheel.schedule(now.plusMillis(60 + 2 * 80), () -> {
+			farFiredAfter.set(System.nanoTime() - start);
+			fired.countDown();
+		});
+
+		assertTrue(fired.await(2, TimeUnit.SECONDS));
+		assertTrue(nearFiredAfter.get() >= TimeUnit.MILLISECONDS.toNanos(60) - TOLERANCE_NANOS);
+		assertTrue(farFiredAfter.get() >= TimeUnit.MILLISECONDS.toNanos(220) - TOLERANCE_NANOS);
+		assertEquals(0, wheel.pending());
+	}
+
+	@Test
+	void pastDeadlinesFireOnTheNextTick() throws InterruptedException {
+		CountDownLatch fired = new CountDownLatch(1);
+
+		wheel.schedule(Instant.now().minusSeconds(10), fired::countDown);
+
+		assertTrue(fired.await(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void cancelledTimersNeverFire() throws InterruptedException {
+		CountDownLatch fired = new CountDownLatch(1);
+		CountDownLatch control = new CountDownLatch(1);
+
+		TimingWheel.Timeout timeout = wheel.schedule(Instant.now().plusMillis(60), fired::countDown);
+		wheel.schedule(Instant.now().plusMillis(100), control::countDown);
+		assertTrue(timeout.cancel());
+		assertFalse(timeout.cancel());
+
+		assertTrue(control.await(1, TimeUnit.SECONDS));
+		assertEquals(1, fired.getCount());
+		assertEquals(0, wheel.pending());
+	}
+
+	@Test
+	void firedTimersCannotBeCancelled() throws InterruptedException {
+		CountDownLatch fired = new CountDownLatch(1);
+
+		TimingWheel.Timeout timeout = wheel.schedule(Instant.now(), fired::countDown);
+
+		assertTrue(fired.await(1, TimeUnit.SECONDS));
+		assertFalse(timeout.cancel());
+	}
+}